@@ -0,0 +1,74 @@
+package com.pantrypal.dto.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the two list envelopes the inventory endpoints return, using
+ * the application's own {@link ObjectMapper} configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<InventoryItemResponse>> listResponse;
+    private ApiResponse<PaginatedResponse<InventoryItemResponse>> pageResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        List<InventoryItemResponse> items = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 9, 30);
+        for (int i = 0; i < size; i++) {
+            items.add(InventoryItemResponse.builder()
+                    .id((long) i + 1)
+                    .name("Item " + i)
+                    .category("groceries")
+                    .status(i % 3 == 0 ? "low" : "in_stock")
+                    .frequency("weekly")
+                    .price(i % 5 == 0 ? null : 1.99 + i)
+                    .note(i % 3 == 0 ? "Buy the large pack" : null)
+                    .needBy(LocalDate.of(2025, 2, 1).plusDays(i % 30))
+                    .createdAt(now.minusDays(i % 90))
+                    .updatedAt(now)
+                    .build());
+        }
+
+        listResponse = ApiResponse.success(items);
+        pageResponse = ApiResponse.success(PaginatedResponse.<InventoryItemResponse>builder()
+                .content(items)
+                .page(0)
+                .size(size)
+                .totalElements(size * 10L)
+                .totalPages(10)
+                .last(false)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] itemList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listResponse);
+    }
+
+    @Benchmark
+    public byte[] paginated() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
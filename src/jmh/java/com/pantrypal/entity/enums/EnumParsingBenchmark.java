@@ -0,0 +1,46 @@
+package com.pantrypal.entity.enums;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Category.valueOf(x.toUpperCase())} idiom used for every filter and write in
+ * {@code InventoryService}. {@code invalid} prices the exception path a bad query
+ * parameter takes before the handler turns it into a 400.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumParsingBenchmark {
+
+    private final String[] categories = {"groceries", "personal_care", "Vegetables", "STATIONERY"};
+    private final String[] statuses = {"in_stock", "low", "out_of_stock"};
+
+    @Benchmark
+    public void category(Blackhole blackhole) {
+        for (String value : categories) {
+            blackhole.consume(Category.valueOf(value.toUpperCase()));
+        }
+    }
+
+    @Benchmark
+    public void status(Blackhole blackhole) {
+        for (String value : statuses) {
+            blackhole.consume(Status.valueOf(value.toUpperCase()));
+        }
+    }
+
+    @Benchmark
+    public Object invalid() {
+        try {
+            return Category.valueOf("snacks".toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
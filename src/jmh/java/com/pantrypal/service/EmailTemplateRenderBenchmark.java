@@ -0,0 +1,70 @@
+package com.pantrypal.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render throughput of the shipped email templates, as seen by a mail worker
+ * during a bulk notification run. {@code freshContext} is the pre-cache baseline
+ * of building a new {@link Context} per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateRenderBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplates emailTemplates;
+
+    private final Map<String, Object> welcomeVariables = Map.of(
+            "username", "pantry_user",
+            "appUrl", "http://localhost:5173");
+
+    private final Map<String, Object> resetVariables = Map.of(
+            "resetUrl", "http://localhost:5173/reset-password?token=7f0c9b6e-2a7d-4c55-9b1e-1f0f6c2b3a44");
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        emailTemplates = new EmailTemplates(templateEngine);
+        emailTemplates.preload();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String welcome() {
+        return emailTemplates.render(EmailTemplates.WELCOME, welcomeVariables);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String passwordReset() {
+        return emailTemplates.render(EmailTemplates.PASSWORD_RESET, resetVariables);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String welcomeFreshContext() {
+        Context context = new Context();
+        context.setVariables(welcomeVariables);
+        return templateEngine.process(EmailTemplates.WELCOME, context);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pantrypal.service;
+
+import com.pantrypal.dto.response.InventoryItemResponse;
+import com.pantrypal.entity.InventoryItem;
+import com.pantrypal.entity.enums.Category;
+import com.pantrypal.entity.enums.Frequency;
+import com.pantrypal.entity.enums.Status;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping done by {@code GET /items/all}, measured per list so the
+ * numbers line up with the {@code inventory.items.mapping} observation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private InventoryService inventoryService;
+    private List<InventoryItem> items;
+
+    @Setup
+    public void setUp() {
+        inventoryService = new InventoryService(null, null, ObservationRegistry.NOOP);
+        items = sampleItems(size);
+    }
+
+    @Benchmark
+    public List<InventoryItemResponse> mapList() {
+        return items.stream()
+                .map(inventoryService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    static List<InventoryItem> sampleItems(int size) {
+        Category[] categories = Category.values();
+        Status[] statuses = Status.values();
+        Frequency[] frequencies = Frequency.values();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 9, 30);
+
+        List<InventoryItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(InventoryItem.builder()
+                    .id((long) i + 1)
+                    .name("Item " + i)
+                    .category(categories[i % categories.length])
+                    .status(statuses[i % statuses.length])
+                    .frequency(frequencies[i % frequencies.length])
+                    .price(i % 5 == 0 ? null : BigDecimal.valueOf(199 + i, 2))
+                    .note(i % 3 == 0 ? "Buy the large pack" : null)
+                    .needBy(LocalDate.of(2025, 2, 1).plusDays(i % 30))
+                    .createdAt(now.minusDays(i % 90))
+                    .updatedAt(now)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,82 @@
+package com.pantrypal.service;
+
+import com.pantrypal.entity.User;
+import com.pantrypal.security.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost for both JWT code paths: {@link JwtService}, used by
+ * the request filter on every authenticated call, and the older {@link JwtUtils}.
+ * {@code verifyTampered} covers the rejection path a scanner hammering the API would hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForPantryPalApplication12345";
+
+    private JwtService jwtService;
+    private JwtUtils jwtUtils;
+    private User user;
+
+    private String serviceToken;
+    private String utilsToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604_800_000L);
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", 604_800_000L);
+        jwtUtils.init();
+
+        user = User.builder().id(42L).username("pantry_user").email("pantry_user@example.com").build();
+
+        serviceToken = jwtService.generateToken(user.getEmail());
+        utilsToken = jwtUtils.generateToken(user);
+        tamperedToken = serviceToken.substring(0, serviceToken.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public String serviceGenerate() {
+        return jwtService.generateToken(user.getEmail());
+    }
+
+    @Benchmark
+    public boolean serviceValidate() {
+        return jwtService.validateToken(serviceToken, user.getEmail());
+    }
+
+    @Benchmark
+    public String serviceExtractUsername() {
+        return jwtService.extractUsername(serviceToken);
+    }
+
+    @Benchmark
+    public boolean serviceVerifyTampered() {
+        return jwtService.validateToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String utilsGenerate() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean utilsValidate() {
+        return jwtUtils.validateToken(utilsToken, user);
+    }
+}
@@ -0,0 +1,63 @@
+package com.pantrypal.service;
+
+import com.pantrypal.dto.response.FrequencyReportResponse;
+import com.pantrypal.dto.response.StatsResponse;
+import com.pantrypal.entity.enums.Category;
+import com.pantrypal.entity.enums.Frequency;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@code Object[]} row mapping behind the stats endpoints. Row counts follow what the
+ * queries can return: twelve months, one row per category, one per frequency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsRowMappingBenchmark {
+
+    private List<Object[]> monthlyRows;
+    private List<Object[]> categoryRows;
+    private List<Object[]> frequencyRows;
+
+    @Setup
+    public void setUp() {
+        monthlyRows = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            monthlyRows.add(new Object[]{String.format("2025-%02d", month), BigDecimal.valueOf(12_345 + month, 2)});
+        }
+
+        categoryRows = new ArrayList<>();
+        for (Category category : Category.values()) {
+            categoryRows.add(new Object[]{category, (long) category.ordinal() + 3, BigDecimal.valueOf(4_999, 2)});
+        }
+
+        frequencyRows = new ArrayList<>();
+        for (Frequency frequency : Frequency.values()) {
+            frequencyRows.add(new Object[]{frequency, (long) frequency.ordinal() + 7, BigDecimal.valueOf(2_550, 2)});
+        }
+    }
+
+    @Benchmark
+    public List<StatsResponse.MonthlySpending> monthlySpending() {
+        return monthlyRows.stream().map(StatsService::toMonthlySpending).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<StatsResponse.CategoryBreakdown> categoryBreakdown() {
+        return categoryRows.stream().map(StatsService::toCategoryBreakdown).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<FrequencyReportResponse> frequencyReport() {
+        return frequencyRows.stream().map(StatsService::toFrequencyReport).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,155 @@
+package com.pantrypal.loadtest;
+
+import com.pantrypal.entity.enums.Category;
+import com.pantrypal.entity.enums.Frequency;
+import com.pantrypal.entity.enums.Status;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Produces inventory rows with a household-like shape: groceries and fresh produce
+ * dominate, most items are in stock, weekly and monthly purchases outnumber daily ones,
+ * and prices are skewed towards cheap items with a long tail. Deterministic for a seed.
+ */
+public class InventoryDataGenerator {
+
+    private static final Weighted<Category> CATEGORIES = new Weighted<>(Map.of(
+            Category.GROCERIES, 28,
+            Category.VEGETABLES, 16,
+            Category.FRUITS, 12,
+            Category.HOUSEHOLD, 12,
+            Category.PERSONAL_CARE, 10,
+            Category.OTHER, 7,
+            Category.MEDICINE, 6,
+            Category.CLOTHING, 5,
+            Category.STATIONERY, 4));
+
+    private static final Weighted<Status> STATUSES = new Weighted<>(Map.of(
+            Status.IN_STOCK, 70,
+            Status.LOW, 20,
+            Status.OUT_OF_STOCK, 10));
+
+    private static final Weighted<Frequency> FREQUENCIES = new Weighted<>(Map.of(
+            Frequency.WEEKLY, 40,
+            Frequency.MONTHLY, 30,
+            Frequency.DAILY, 15,
+            Frequency.OCCASIONAL, 15));
+
+    private static final Map<Category, List<String>> NAMES = new EnumMap<>(Map.of(
+            Category.GROCERIES, List.of("Rice", "Pasta", "Flour", "Sugar", "Coffee", "Tea", "Milk", "Eggs", "Bread", "Olive Oil", "Cereal", "Butter"),
+            Category.VEGETABLES, List.of("Tomatoes", "Onions", "Potatoes", "Spinach", "Carrots", "Broccoli", "Peppers", "Garlic"),
+            Category.FRUITS, List.of("Apples", "Bananas", "Oranges", "Grapes", "Mangoes", "Berries", "Lemons"),
+            Category.HOUSEHOLD, List.of("Dish Soap", "Laundry Detergent", "Paper Towels", "Trash Bags", "Sponges", "Light Bulbs"),
+            Category.PERSONAL_CARE, List.of("Shampoo", "Toothpaste", "Soap", "Deodorant", "Razors", "Sunscreen"),
+            Category.OTHER, List.of("Batteries", "Pet Food", "Gift Wrap", "Candles"),
+            Category.MEDICINE, List.of("Paracetamol", "Vitamins", "Bandages", "Cough Syrup", "Antacid"),
+            Category.CLOTHING, List.of("Socks", "T-Shirt", "Jeans", "Jacket"),
+            Category.STATIONERY, List.of("Notebook", "Pens", "Printer Paper", "Stapler")));
+
+    // Median price per category; individual prices spread log-normally around it
+    private static final Map<Category, Double> MEDIAN_PRICE = new EnumMap<>(Map.of(
+            Category.GROCERIES, 4.0,
+            Category.VEGETABLES, 2.5,
+            Category.FRUITS, 3.0,
+            Category.HOUSEHOLD, 6.0,
+            Category.PERSONAL_CARE, 7.0,
+            Category.OTHER, 10.0,
+            Category.MEDICINE, 9.0,
+            Category.CLOTHING, 25.0,
+            Category.STATIONERY, 5.0));
+
+    private static final String[] NOTES = {"Buy the large pack", "Organic if available", "Check for offers", "Same brand as last time"};
+
+    private final Random random;
+    private final LocalDateTime now;
+
+    public InventoryDataGenerator(long seed, LocalDateTime now) {
+        this.random = new Random(seed);
+        this.now = now;
+    }
+
+    public Item next() {
+        Category category = CATEGORIES.pick(random);
+        List<String> names = NAMES.get(category);
+
+        BigDecimal price = null;
+        if (random.nextInt(10) != 0) {
+            double value = MEDIAN_PRICE.get(category) * Math.exp(0.6 * random.nextGaussian());
+            price = BigDecimal.valueOf(Math.max(0.25, value)).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        LocalDateTime createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+        LocalDateTime updatedAt = createdAt.plusMinutes(random.nextInt(30 * 24 * 60));
+        if (updatedAt.isAfter(now)) {
+            updatedAt = now;
+        }
+
+        return new Item(
+                names.get(random.nextInt(names.size())),
+                category,
+                STATUSES.pick(random),
+                FREQUENCIES.pick(random),
+                price,
+                random.nextInt(5) == 0 ? NOTES[random.nextInt(NOTES.length)] : null,
+                random.nextInt(10) < 3 ? now.toLocalDate().plusDays(random.nextInt(30)) : null,
+                createdAt,
+                updatedAt);
+    }
+
+    /**
+     * A name fragment that matches some of the generated items, for search requests.
+     */
+    public static String searchTerm(Random random) {
+        Category category = CATEGORIES.pick(random);
+        List<String> names = NAMES.get(category);
+        String name = names.get(random.nextInt(names.size()));
+        return name.substring(0, Math.min(4, name.length())).toLowerCase();
+    }
+
+    public record Item(String name, Category category, Status status, Frequency frequency, BigDecimal price,
+                       String note, LocalDate needBy, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Picks values in proportion to integer weights.
+     */
+    static class Weighted<T> {
+
+        private final Object[] values;
+        private final int[] cumulative;
+
+        Weighted(Map<T, Integer> weights) {
+            // Sorted by weight so the order, and therefore the sequence for a seed, is stable
+            List<Map.Entry<T, Integer>> entries = weights.entrySet().stream()
+                    .sorted(Map.Entry.<T, Integer>comparingByValue().reversed()
+                            .thenComparing(entry -> entry.getKey().toString()))
+                    .toList();
+            values = new Object[entries.size()];
+            cumulative = new int[entries.size()];
+            int total = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                total += entries.get(i).getValue();
+                values[i] = entries.get(i).getKey();
+                cumulative[i] = total;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T pick(Random random) {
+            int target = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (target < cumulative[i]) {
+                    return (T) values[i];
+                }
+            }
+            return (T) values[values.length - 1];
+        }
+    }
+}
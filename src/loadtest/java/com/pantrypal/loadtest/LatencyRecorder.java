@@ -0,0 +1,83 @@
+package com.pantrypal.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-endpoint latencies and status outcomes and renders the summary table.
+ * Samples are kept raw (a run of a few minutes is well under a million requests), so
+ * percentiles are exact rather than bucketed.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).record(latencyNanos, success);
+    }
+
+    public String report(double elapsedSeconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n%-28s %8s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        long[] all = new long[0];
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            long[] samples = entry.getValue().snapshot();
+            long errors = entry.getValue().errors.get();
+            out.append(row(entry.getKey(), samples, errors, elapsedSeconds));
+            all = concat(all, samples);
+            totalErrors += errors;
+        }
+        out.append(row("TOTAL", all, totalErrors, elapsedSeconds));
+        return out.toString();
+    }
+
+    private static String row(String name, long[] samples, long errors, double elapsedSeconds) {
+        Arrays.sort(samples);
+        return String.format(Locale.ROOT, "%-28s %8d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, samples.length, samples.length / elapsedSeconds, errors,
+                percentile(samples, 50), percentile(samples, 90), percentile(samples, 99),
+                percentile(samples, 99.9), percentile(samples, 100));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static class Endpoint {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long latencyNanos, boolean success) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = latencyNanos;
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, size);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.pantrypal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop driver: requests are scheduled at a fixed rate regardless of how quickly
+ * earlier ones complete, and latency is measured from the scheduled start. A slow server
+ * therefore shows up as queueing delay in the percentiles instead of silently lowering
+ * the offered load.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadDriver {
+
+    enum Operation { LOGIN, LIST, SEARCH, STATS, BULK_CREATE, DELETE }
+
+    // Summary weighted double; monthly-spending is left out because its native query uses
+    // MySQL's DATE_FORMAT, which H2 does not provide
+    private static final String[] STATS_PATHS = {
+            "/stats/summary", "/stats/summary", "/stats/category-breakdown", "/stats/frequency-report"};
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.loadtest.password:LoadTest#2025}")
+    private String password;
+
+    @Value("${app.loadtest.sessions:50}")
+    private int sessionCount;
+
+    @Value("${app.loadtest.rps:200}")
+    private int rps;
+
+    @Value("${app.loadtest.concurrency:64}")
+    private int concurrency;
+
+    @Value("${app.loadtest.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${app.loadtest.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${app.loadtest.bulk-size:5}")
+    private int bulkSize;
+
+    @Value("${app.loadtest.mix.login:5}")
+    private int loginWeight;
+
+    @Value("${app.loadtest.mix.list:25}")
+    private int listWeight;
+
+    @Value("${app.loadtest.mix.search:20}")
+    private int searchWeight;
+
+    @Value("${app.loadtest.mix.stats:25}")
+    private int statsWeight;
+
+    @Value("${app.loadtest.mix.bulk-create:15}")
+    private int bulkCreateWeight;
+
+    @Value("${app.loadtest.mix.delete:10}")
+    private int deleteWeight;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private List<Session> sessions;
+    private InventoryDataGenerator.Weighted<Operation> mix;
+    private InventoryDataGenerator itemGenerator;
+
+    public void run(String baseUrl, List<String> emails) throws InterruptedException {
+        this.baseUrl = baseUrl;
+        this.mix = new InventoryDataGenerator.Weighted<>(Map.of(
+                Operation.LOGIN, loginWeight,
+                Operation.LIST, listWeight,
+                Operation.SEARCH, searchWeight,
+                Operation.STATS, statsWeight,
+                Operation.BULK_CREATE, bulkCreateWeight,
+                Operation.DELETE, deleteWeight));
+        this.itemGenerator = new InventoryDataGenerator(System.nanoTime(), LocalDateTime.now());
+        this.sessions = openSessions(emails);
+
+        log.info("Warming up for {} s at {} req/s", warmupSeconds, rps);
+        drive(warmupSeconds, new LatencyRecorder());
+
+        log.info("Measuring for {} s at {} req/s with {} workers over {} sessions",
+                durationSeconds, rps, concurrency, sessions.size());
+        LatencyRecorder recorder = new LatencyRecorder();
+        long start = System.nanoTime();
+        drive(durationSeconds, recorder);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        log.info("Load test results (target {} req/s, {} s):{}", rps, durationSeconds, recorder.report(elapsed));
+    }
+
+    private List<Session> openSessions(List<String> emails) {
+        int count = Math.min(sessionCount, emails.size());
+        List<Session> opened = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Session session = new Session(emails.get(i));
+            HttpResponse<String> response = login(session);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + session.email + ": " + response.body());
+            }
+            opened.add(session);
+        }
+        return opened;
+    }
+
+    private void drive(int seconds, LatencyRecorder recorder) throws InterruptedException {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService workers = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "load-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long intervalNanos = 1_000_000_000L / rps;
+        long total = (long) rps * seconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            workers.execute(() -> execute(scheduledAt, recorder));
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+            log.warn("Abandoning {} requests still queued after the run", ((ThreadPoolExecutor) workers).getQueue().size());
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(long scheduledAt, LatencyRecorder recorder) {
+        Random random = ThreadLocalRandom.current();
+        Session session = sessions.get(random.nextInt(sessions.size()));
+        Operation operation = mix.pick(random);
+
+        String endpoint = operation.name();
+        HttpResponse<String> response;
+        try {
+            switch (operation) {
+                case LOGIN -> {
+                    endpoint = "POST /auth/login";
+                    response = login(session);
+                }
+                case LIST -> {
+                    endpoint = "GET /items/all";
+                    response = send(session, HttpRequest.newBuilder(uri("/items/all")).GET());
+                }
+                case SEARCH -> {
+                    endpoint = "GET /items/search";
+                    String term = InventoryDataGenerator.searchTerm(random);
+                    response = send(session, HttpRequest.newBuilder(
+                            uri("/items/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8))).GET());
+                }
+                case STATS -> {
+                    String path = STATS_PATHS[random.nextInt(STATS_PATHS.length)];
+                    endpoint = "GET " + path;
+                    response = send(session, HttpRequest.newBuilder(uri(path)).GET());
+                }
+                case DELETE -> {
+                    Long itemId = session.createdItemIds.pollFirst();
+                    if (itemId != null) {
+                        endpoint = "DELETE /items/{id}";
+                        response = send(session, HttpRequest.newBuilder(uri("/items/" + itemId)).DELETE());
+                        break;
+                    }
+                    // Nothing of ours left to delete yet; create instead so the mix stays write-heavy
+                    endpoint = "POST /items/bulk";
+                    response = bulkCreate(session);
+                }
+                default -> {
+                    endpoint = "POST /items/bulk";
+                    response = bulkCreate(session);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("{} request failed: {}", endpoint, e.toString());
+            recorder.record(endpoint, System.nanoTime() - scheduledAt, false);
+            return;
+        }
+
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - scheduledAt, success);
+    }
+
+    private HttpResponse<String> login(Session session) {
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("email", session.email, "password", password));
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                session.token = objectMapper.readTree(response.body()).path("data").path("token").asText();
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during login", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Login request failed", e);
+        }
+    }
+
+    private HttpResponse<String> bulkCreate(Session session) throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>(bulkSize);
+        for (int i = 0; i < bulkSize; i++) {
+            InventoryDataGenerator.Item item = itemGenerator.next();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("name", item.name());
+            body.put("category", item.category().name().toLowerCase());
+            body.put("status", item.status().name().toLowerCase());
+            body.put("frequency", item.frequency().name().toLowerCase());
+            body.put("price", item.price());
+            body.put("note", item.note());
+            body.put("needBy", item.needBy());
+            items.add(body);
+        }
+
+        HttpResponse<String> response = send(session, HttpRequest.newBuilder(uri("/items/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("items", items)))));
+        if (response.statusCode() == 200) {
+            for (JsonNode created : objectMapper.readTree(response.body()).path("data")) {
+                session.createdItemIds.addLast(created.path("id").asLong());
+            }
+        }
+        return response;
+    }
+
+    private HttpResponse<String> send(Session session, HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.header("Authorization", "Bearer " + session.token).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static class Session {
+
+        private final String email;
+        private final ConcurrentLinkedDeque<Long> createdItemIds = new ConcurrentLinkedDeque<>();
+        private volatile String token;
+
+        Session(String email) {
+            this.email = email;
+        }
+    }
+}
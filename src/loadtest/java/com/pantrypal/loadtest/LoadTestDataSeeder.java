@@ -0,0 +1,97 @@
+package com.pantrypal.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds {@code app.loadtest.users} users, each with {@code app.loadtest.items-per-user}
+ * items, using batched JDBC inserts. Every user shares one password so it is hashed once.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestDataSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.loadtest.seed:42}")
+    private long seed;
+
+    @Value("${app.loadtest.users:200}")
+    private int users;
+
+    @Value("${app.loadtest.items-per-user:150}")
+    private int itemsPerUser;
+
+    @Value("${app.loadtest.password:LoadTest#2025}")
+    private String password;
+
+    public List<String> seed() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        String hash = passwordEncoder.encode(password);
+
+        List<String> emails = new ArrayList<>(users);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String email = "load_user_" + i + "@loadtest.local";
+            emails.add(email);
+            userRows.add(new Object[]{"load_user_" + i, email, hash, true, nowTs, nowTs});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, enabled, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                userRows);
+
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE '%@loadtest.local' ORDER BY id", Long.class);
+
+        InventoryDataGenerator generator = new InventoryDataGenerator(seed, now);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long itemCount = 0;
+        for (Long userId : userIds) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                InventoryDataGenerator.Item item = generator.next();
+                batch.add(new Object[]{
+                        userId, item.name(), item.category().name(), item.status().name(), item.frequency().name(),
+                        item.price(), item.note(), item.needBy() != null ? Date.valueOf(item.needBy()) : null,
+                        Timestamp.valueOf(item.createdAt()), Timestamp.valueOf(item.updatedAt())});
+                if (batch.size() == BATCH_SIZE) {
+                    itemCount += insertItems(batch);
+                }
+            }
+        }
+        itemCount += insertItems(batch);
+
+        log.info("Seeded {} users and {} items in {} ms", userIds.size(), itemCount, System.currentTimeMillis() - start);
+        return emails;
+    }
+
+    private int insertItems(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO inventory_items (user_id, name, category, status, frequency, price, note, need_by, created_at, updated_at, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+}
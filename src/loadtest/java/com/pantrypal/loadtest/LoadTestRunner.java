@@ -0,0 +1,39 @@
+package com.pantrypal.loadtest;
+
+import com.pantrypal.PantryPalApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application under the {@code loadtest} profile on a random port, seeds the
+ * embedded database and runs {@link LoadDriver} against it. Arguments such as
+ * {@code app.loadtest.rps=400} override {@code application-loadtest.yml}; the leading
+ * {@code --} is optional so they can be passed through {@code -Dloadtest.args}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        // A devtools restart would reload the context on a second thread mid-run
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // Command-line arguments outrank spring.profiles.active=dev from application.yml
+        String[] arguments = Stream.concat(Stream.of("--spring.profiles.active=loadtest"), Stream.of(args)
+                        .map(arg -> arg.startsWith("--") ? arg : "--" + arg))
+                .toArray(String[]::new);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PantryPalApplication.class)
+                .run(arguments);
+        try {
+            List<String> emails = context.getBean(LoadTestDataSeeder.class).seed();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            context.getBean(LoadDriver.class).run("http://localhost:" + port + contextPath, emails);
+        } finally {
+            context.close();
+        }
+    }
+}
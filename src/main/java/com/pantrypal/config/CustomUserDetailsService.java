@@ -1,30 +1,70 @@
 package com.pantrypal.config;
 
+import com.pantrypal.datasource.ReadWriteRoutingDataSource;
 import com.pantrypal.entity.User;
 import com.pantrypal.repository.UserRepository;
+import com.pantrypal.security.RequestIdentity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final RequestIdentity requestIdentity;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = requestIdentity.findByEmail(email)
+                .or(() -> userRepository.findByEmail(email).filter(User::isEnabled))
+                .or(() -> findOnPrimary(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         if (!user.isEnabled()) {
             throw new UsernameNotFoundException("User account is disabled");
         }
 
+        requestIdentity.set(user);
+        return user;
+    }
+
+    /**
+     * The lookup above may have run on the replica, which does not know a user who registered
+     * or was re-enabled a moment ago. It needs its own transaction because the current one
+     * already holds a replica connection.
+     */
+    private Optional<User> findOnPrimary(String email) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return ReadWriteRoutingDataSource.usePrimary(
+                () -> transactionTemplate.execute(status -> userRepository.findByEmail(email)));
+    }
+
+    /**
+     * Called after a successful login when the stored hash uses an older encoding
+     * or a lower BCrypt strength than the current one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        userRepository.updatePassword(user.getId(), newPassword);
+        user.setPassword(newPassword);
+        requestIdentity.set(user);
         return user;
     }
 }
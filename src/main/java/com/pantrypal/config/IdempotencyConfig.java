@@ -0,0 +1,24 @@
+package com.pantrypal.config;
+
+import com.pantrypal.idempotency.IdempotencyInterceptor;
+import com.pantrypal.idempotency.IdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public WebMvcConfigurer idempotencyWebMvcConfigurer(IdempotencyStore idempotencyStore) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new IdempotencyInterceptor(idempotencyStore)).addPathPatterns("/items/**");
+            }
+        };
+    }
+}
@@ -3,9 +3,12 @@ package com.pantrypal.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pantrypal.monitoring.ObservedJacksonHttpMessageConverter;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
 @Configuration
 public class JacksonConfig {
@@ -17,4 +20,13 @@ public class JacksonConfig {
                 .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .build();
     }
+
+    /**
+     * Replaces Spring Boot's default JSON converter so response serialization is observed.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        return new ObservedJacksonHttpMessageConverter(objectMapper, observationRegistry);
+    }
 }
@@ -1,12 +1,21 @@
 package com.pantrypal.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.dto.response.ApiResponse;
+import com.pantrypal.monitoring.LogThrottle;
 import com.pantrypal.service.JwtService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +25,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.sql.SQLTransientConnectionException;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +34,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final ObservationRegistry observationRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final LogThrottle logThrottle = new LogThrottle(10_000);
 
     @Override
     protected void doFilterInternal(
@@ -34,10 +48,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtService.validateToken(jwt)) {
+            // Each stage is its own observation: a span when the trace is sampled, a timer always
+            if (jwt != null && Boolean.TRUE.equals(Observation.createNotStarted("auth.jwt.verification", observationRegistry)
+                    .contextualName("jwt-verify")
+                    .observe(() -> jwtService.validateToken(jwt)))) {
                 String username = jwtService.extractUsername(jwt);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = Observation.createNotStarted("auth.user.lookup", observationRegistry)
+                        .contextualName("user-lookup")
+                        .observe(() -> userDetailsService.loadUserByUsername(username));
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -52,7 +71,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 log.debug("Authenticated user: {}", username);
             }
         } catch (Exception e) {
-            log.error("Cannot set user authentication: {}", e.getMessage());
+            // The pool could not supply a connection for the user lookup within the acquisition
+            // budget: report 503 rather than letting the request continue as anonymous (401)
+            if (NestedExceptionUtils.getRootCause(e) instanceof SQLTransientConnectionException) {
+                long suppressed = logThrottle.acquire("connection-timeout");
+                if (suppressed >= 0) {
+                    log.warn("Connection pool exhausted during authentication [{} similar suppressed]", suppressed);
+                }
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("The service is busy, please retry shortly"));
+                return;
+            }
+            long suppressed = logThrottle.acquire(e.getClass().getName());
+            if (suppressed >= 0) {
+                log.warn("Cannot set user authentication: {} [{} similar suppressed]", e.getMessage(), suppressed);
+            }
         }
 
         filterChain.doFilter(request, response);
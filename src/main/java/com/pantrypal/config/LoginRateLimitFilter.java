@@ -0,0 +1,168 @@
+package com.pantrypal.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.dto.response.ApiResponse;
+import com.pantrypal.ratelimit.CachedBodyHttpServletRequest;
+import com.pantrypal.ratelimit.TokenBucketLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the unauthenticated auth endpoints before any password hashing or user lookup.
+ * Every request spends a token from its client IP's bucket; requests carrying an email
+ * also spend one from that email's bucket, which is what slows credential stuffing that
+ * rotates IPs against a single account.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> THROTTLED_PATHS = Set.of("/auth/login", "/auth/register", "/auth/forgot-password");
+    private static final int MAX_INSPECTED_BODY_BYTES = 16 * 1024;
+
+    @Value("${app.rate-limit.auth.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.auth.ip.capacity:20}")
+    private long ipCapacity;
+
+    @Value("${app.rate-limit.auth.ip.refill-per-minute:10}")
+    private double ipRefillPerMinute;
+
+    @Value("${app.rate-limit.auth.email.capacity:5}")
+    private long emailCapacity;
+
+    @Value("${app.rate-limit.auth.email.refill-per-minute:2}")
+    private double emailRefillPerMinute;
+
+    @Value("${app.rate-limit.auth.max-keys:100000}")
+    private int maxKeys;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients pick their own key
+    @Value("${app.rate-limit.auth.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private final ObjectMapper objectMapper;
+
+    private TokenBucketLimiter ipLimiter;
+    private TokenBucketLimiter emailLimiter;
+
+    @PostConstruct
+    void createLimiters() {
+        ipLimiter = new TokenBucketLimiter("auth-ip", ipCapacity, ipRefillPerMinute / 60d, maxKeys);
+        emailLimiter = new TokenBucketLimiter("auth-email", emailCapacity, emailRefillPerMinute / 60d, maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !THROTTLED_PATHS.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        long waitNanos = ipLimiter.tryAcquire(clientIp(request));
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        // Read the body whatever Content-Length says (it may be absent with chunked encoding),
+        // so no request reaches the endpoint without passing the email bucket
+        if (request.getContentLengthLong() > MAX_INSPECTED_BODY_BYTES) {
+            rejectTooLarge(response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY_BYTES + 1);
+        if (body.length > MAX_INSPECTED_BODY_BYTES) {
+            rejectTooLarge(response);
+            return;
+        }
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request, body);
+
+        String email = body.length > 0 ? extractEmail(body) : null;
+        if (email != null) {
+            waitNanos = emailLimiter.tryAcquire(path(request) + "|" + email);
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cached, response);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma > 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String extractEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed JSON is left for request binding to reject
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many attempts, please retry in " + retryAfterSeconds + " seconds"));
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Request body must not exceed " + MAX_INSPECTED_BODY_BYTES + " bytes"));
+    }
+
+    public TokenBucketLimiter getIpLimiter() {
+        return ipLimiter;
+    }
+
+    public TokenBucketLimiter getEmailLimiter() {
+        return emailLimiter;
+    }
+}
@@ -0,0 +1,234 @@
+package com.pantrypal.config;
+
+import com.pantrypal.datasource.PoolAutotuner;
+import com.pantrypal.datasource.ReadWriteRoutingDataSource;
+import com.pantrypal.datasource.ReplicaLagMonitor;
+import com.pantrypal.idempotency.IdempotencyStore;
+import com.pantrypal.monitoring.SqlStatementListener;
+import com.pantrypal.ratelimit.TokenBucketLimiter;
+import com.pantrypal.security.BoundedPasswordEncoder;
+import com.pantrypal.service.MailDispatcher;
+import com.pantrypal.service.OutboxRelay;
+import com.pantrypal.service.SessionRegistry;
+import com.pantrypal.service.TokenPurgeJob;
+import com.pantrypal.service.UsernameBloomFilter;
+import com.pantrypal.writebehind.StatusWriteBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters kept by the application's own components (queues, caches,
+ * limiters, background jobs) as Micrometer meters. HTTP, Hikari and JVM metrics come
+ * from Spring Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder encoder) {
+        return registry -> {
+            FunctionTimer.builder("auth.password.hash", encoder,
+                            BoundedPasswordEncoder::getHashCount,
+                            BoundedPasswordEncoder::getHashTimeNanos, TimeUnit.NANOSECONDS)
+                    .description("BCrypt encode and verify calls on the hashing pool")
+                    .register(registry);
+            Gauge.builder("auth.password.hash.active", encoder, BoundedPasswordEncoder::getActiveCount)
+                    .register(registry);
+            Gauge.builder("auth.password.hash.queue", encoder, BoundedPasswordEncoder::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hash.rejected", encoder, BoundedPasswordEncoder::getRejectedCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder sessionCacheMetrics(SessionRegistry sessionRegistry, UsernameBloomFilter usernameBloomFilter) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", sessionRegistry, SessionRegistry::getHitCount)
+                    .tags("cache", "refresh-sessions", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", sessionRegistry, SessionRegistry::getMissCount)
+                    .tags("cache", "refresh-sessions", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", sessionRegistry, SessionRegistry::getEvictionCount)
+                    .tag("cache", "refresh-sessions")
+                    .register(registry);
+            Gauge.builder("cache.size", sessionRegistry, SessionRegistry::size)
+                    .tag("cache", "refresh-sessions")
+                    .register(registry);
+
+            FunctionCounter.builder("auth.username.filter.checks", usernameBloomFilter, UsernameBloomFilter::getCheckCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.username.filter.db.avoided", usernameBloomFilter,
+                            UsernameBloomFilter::getDefinitelyAbsentCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(LoginRateLimitFilter loginRateLimitFilter, UserRateLimitFilter userRateLimitFilter) {
+        return registry -> {
+            bindLimiter(registry, loginRateLimitFilter.getIpLimiter());
+            bindLimiter(registry, loginRateLimitFilter.getEmailLimiter());
+            FunctionCounter.builder("ratelimit.rejected", userRateLimitFilter, UserRateLimitFilter::getRejectedByRateCount)
+                    .tag("limiter", "user-rate")
+                    .register(registry);
+            FunctionCounter.builder("ratelimit.rejected", userRateLimitFilter, UserRateLimitFilter::getRejectedByQuotaCount)
+                    .tag("limiter", "user-quota")
+                    .register(registry);
+        };
+    }
+
+    private static void bindLimiter(MeterRegistry registry, TokenBucketLimiter limiter) {
+        FunctionCounter.builder("ratelimit.allowed", limiter, TokenBucketLimiter::getAllowedCount)
+                .tag("limiter", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("ratelimit.rejected", limiter, TokenBucketLimiter::getRejectedCount)
+                .tag("limiter", limiter.getName())
+                .register(registry);
+        Gauge.builder("ratelimit.keys", limiter, TokenBucketLimiter::size)
+                .tag("limiter", limiter.getName())
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder mailMetrics(MailDispatcher dispatcher, ObjectProvider<OutboxRelay> outboxRelay) {
+        return registry -> {
+            FunctionCounter.builder("mail.sent", dispatcher, MailDispatcher::getSentCount).register(registry);
+            FunctionCounter.builder("mail.failed", dispatcher, MailDispatcher::getFailedCount).register(registry);
+            FunctionCounter.builder("mail.batches", dispatcher, MailDispatcher::getBatchCount).register(registry);
+
+            outboxRelay.ifAvailable(relay -> {
+                FunctionCounter.builder("outbox.delivered", relay, OutboxRelay::getDeliveredCount).register(registry);
+                FunctionCounter.builder("outbox.retried", relay, OutboxRelay::getRetriedCount).register(registry);
+                FunctionCounter.builder("outbox.dead.lettered", relay, OutboxRelay::getDeadLetteredCount).register(registry);
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenPurgeMetrics(ObjectProvider<TokenPurgeJob> tokenPurgeJob) {
+        return registry -> tokenPurgeJob.ifAvailable(job -> {
+            FunctionCounter.builder("token.purge.deleted", job, TokenPurgeJob::getRefreshTokensPurged)
+                    .tag("token", "refresh")
+                    .register(registry);
+            FunctionCounter.builder("token.purge.deleted", job, TokenPurgeJob::getResetTokensPurged)
+                    .tag("token", "password-reset")
+                    .register(registry);
+            FunctionCounter.builder("token.purge.deleted", job, TokenPurgeJob::getIdempotencyKeysPurged)
+                    .tag("token", "idempotency-key")
+                    .register(registry);
+            FunctionCounter.builder("token.purge.runs", job, TokenPurgeJob::getRunCount)
+                    .tag("result", "completed")
+                    .register(registry);
+            FunctionCounter.builder("token.purge.runs", job, TokenPurgeJob::getSkippedRunCount)
+                    .tag("result", "skipped")
+                    .register(registry);
+            Gauge.builder("token.purge.last.duration", job, TokenPurgeJob::getLastRunDurationMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder idempotencyMetrics(ObjectProvider<IdempotencyStore> idempotencyStore) {
+        return registry -> idempotencyStore.ifAvailable(store -> {
+            FunctionCounter.builder("idempotency.requests", store, IdempotencyStore::getClaimCount)
+                    .tag("result", "claimed")
+                    .register(registry);
+            FunctionCounter.builder("idempotency.requests", store, IdempotencyStore::getMemoryReplayCount)
+                    .tag("result", "replayed-memory")
+                    .register(registry);
+            FunctionCounter.builder("idempotency.requests", store, IdempotencyStore::getDatabaseReplayCount)
+                    .tag("result", "replayed-database")
+                    .register(registry);
+            FunctionCounter.builder("idempotency.requests", store, IdempotencyStore::getInProgressRejectionCount)
+                    .tag("result", "in-progress")
+                    .register(registry);
+            Gauge.builder("idempotency.memory.entries", store, IdempotencyStore::getMemoryEntryCount)
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder statusWriteBufferMetrics(ObjectProvider<StatusWriteBuffer> statusWriteBuffer) {
+        return registry -> statusWriteBuffer.ifAvailable(buffer -> {
+            FunctionCounter.builder("inventory.status.buffer.offered", buffer, StatusWriteBuffer::getOfferedCount)
+                    .register(registry);
+            FunctionCounter.builder("inventory.status.buffer.written", buffer, StatusWriteBuffer::getFlushedItemCount)
+                    .description("Item rows written by flushes")
+                    .register(registry);
+            Gauge.builder("inventory.status.buffer.coalescing.ratio", buffer, StatusWriteBuffer::getCoalescingRatio)
+                    .description("Share of buffered status changes replaced before reaching the database")
+                    .register(registry);
+            FunctionTimer.builder("inventory.status.buffer.flush", buffer,
+                            StatusWriteBuffer::getFlushCount,
+                            StatusWriteBuffer::getFlushTimeNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            FunctionCounter.builder("inventory.status.buffer.flush.failures", buffer, StatusWriteBuffer::getFailedFlushCount)
+                    .register(registry);
+            Gauge.builder("inventory.status.buffer.pending.users", buffer, StatusWriteBuffer::getPendingUserCount)
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder sqlStatementMetrics(ObjectProvider<SqlStatementListener> sqlStatementListener) {
+        return registry -> sqlStatementListener.ifAvailable(listener -> {
+            FunctionCounter.builder("sql.statements", listener, SqlStatementListener::getStatementCount)
+                    .register(registry);
+            FunctionCounter.builder("sql.statements.slow", listener, SqlStatementListener::getSlowStatementCount)
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource,
+                                                ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        return registry -> {
+            routingDataSource.ifAvailable(router -> {
+                bindRoute(registry, router, "primary", "read-write", ReadWriteRoutingDataSource::getPrimaryWriteCount);
+                bindRoute(registry, router, "replica", "read-only", ReadWriteRoutingDataSource::getReplicaReadCount);
+                bindRoute(registry, router, "primary", "replica-lag", ReadWriteRoutingDataSource::getLagFallbackCount);
+                bindRoute(registry, router, "primary", "read-your-writes",
+                        ReadWriteRoutingDataSource::getReadYourWritesFallbackCount);
+                bindRoute(registry, router, "primary", "forced", ReadWriteRoutingDataSource::getForcedPrimaryReadCount);
+            });
+            replicaLagMonitor.ifAvailable(monitor -> {
+                Gauge.builder("datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMillis)
+                        .baseUnit("milliseconds")
+                        .description("Replica heartbeat age at the last check; -1 when unknown")
+                        .register(registry);
+                Gauge.builder("datasource.replica.available", monitor, m -> m.isReplicaUsable() ? 1 : 0)
+                        .register(registry);
+                FunctionCounter.builder("datasource.replica.check.failures", monitor, ReplicaLagMonitor::getFailedCheckCount)
+                        .register(registry);
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder poolAutotunerMetrics(PoolAutotuner poolAutotuner) {
+        return registry -> poolAutotuner.getPools().forEach(pool ->
+                Gauge.builder("datasource.pool.recommended.size", poolAutotuner, tuner -> tuner.getRecommendedSize(pool.getPoolName()))
+                        .description("Pool size suggested by the last autotuning window; -1 before the first")
+                        .tag("pool", pool.getPoolName())
+                        .register(registry));
+    }
+
+    private static void bindRoute(MeterRegistry registry, ReadWriteRoutingDataSource router, String target, String reason,
+                                  ToDoubleFunction<ReadWriteRoutingDataSource> count) {
+        FunctionCounter.builder("datasource.routing", router, count)
+                .tags("target", target, "reason", reason)
+                .register(registry);
+    }
+}
@@ -13,9 +13,7 @@ public class MySQLConfig {
     @Bean
     public JpaVendorAdapter jpaVendorAdapter() {
         HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter();
-        adapter.setDatabasePlatform("org.hibernate.dialect.MySQL8Dialect");
         adapter.setShowSql(false);
-        adapter.setGenerateDdl(true);
 
         // Additional Hibernate properties
         adapter.getJpaPropertyMap().put("hibernate.physical_naming_strategy",
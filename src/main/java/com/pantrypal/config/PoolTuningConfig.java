@@ -0,0 +1,125 @@
+package com.pantrypal.config;
+
+import com.pantrypal.datasource.PoolAutotuner;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Applies the connection-acquisition budget to every Hikari pool and runs the
+ * {@link PoolAutotuner} over all of them, including replica and shard pools behind routers.
+ */
+@Slf4j
+@Configuration
+public class PoolTuningConfig {
+
+    @Value("${app.datasource.pool.autotune.mode:report}")
+    private String mode;
+
+    @Value("${app.datasource.pool.autotune.window-ms:60000}")
+    private long windowMs;
+
+    @Value("${app.datasource.pool.autotune.min-size:4}")
+    private int minSize;
+
+    @Value("${app.datasource.pool.autotune.max-size:40}")
+    private int maxSize;
+
+    @Value("${app.datasource.pool.autotune.headroom:1.5}")
+    private double headroom;
+
+    @Value("${app.datasource.pool.autotune.target-wait-ms:10}")
+    private long targetWaitMs;
+
+    @Value("${app.datasource.pool.autotune.max-step:4}")
+    private int maxStep;
+
+    @Bean
+    public PoolAutotuner poolAutotuner(ObjectProvider<DataSource> dataSources, MeterRegistry meterRegistry) {
+        SingletonSupplier<List<HikariDataSource>> pools = SingletonSupplier.of(() -> findPools(dataSources));
+        return new PoolAutotuner(pools, meterRegistry, PoolAutotuner.Mode.valueOf(mode.toUpperCase(Locale.ROOT)),
+                windowMs, minSize, maxSize, headroom, targetWaitMs, maxStep);
+    }
+
+    /**
+     * Hikari copies connection-timeout into the pool when it starts, so the budget is set
+     * on each pool bean before first use. It runs ahead of {@code @ConfigurationProperties}
+     * binding, so an explicit {@code connection-timeout} for a pool still wins, as it does
+     * for shard pools, which are not beans and get the budget from ShardingConfig.
+     */
+    @Bean
+    public static AcquisitionBudgetPostProcessor acquisitionBudget(@Value("${app.datasource.pool.acquisition-budget-ms:1000}") long budgetMs) {
+        return new AcquisitionBudgetPostProcessor(budgetMs);
+    }
+
+    // Declared as the bean type so the container sees PriorityOrdered before creating it
+    static final class AcquisitionBudgetPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final long budgetMs;
+
+        private AcquisitionBudgetPostProcessor(long budgetMs) {
+            this.budgetMs = budgetMs;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                pool.setConnectionTimeout(budgetMs);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static List<HikariDataSource> findPools(ObjectProvider<DataSource> dataSources) {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSources.orderedStream().forEach(dataSource -> collect(dataSource, pools));
+        return List.copyOf(new ArrayList<>(pools));
+    }
+
+    private static void collect(DataSource dataSource, Set<HikariDataSource> pools) {
+        if (dataSource == null) {
+            return;
+        }
+        if (dataSource instanceof HikariDataSource hikari) {
+            pools.add(hikari);
+        } else if (dataSource instanceof DelegatingDataSource delegating) {
+            collect(delegating.getTargetDataSource(), pools);
+        } else if (dataSource instanceof AbstractRoutingDataSource router) {
+            router.getResolvedDataSources().values().forEach(target -> collect(target, pools));
+            collect(router.getResolvedDefaultDataSource(), pools);
+        } else {
+            try {
+                // SQL metrics proxies
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+                }
+            } catch (SQLException e) {
+                log.debug("Could not unwrap {}: {}", dataSource, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.pantrypal.config;
+
+import com.pantrypal.ratelimit.InMemoryRateLimitBackend;
+import com.pantrypal.ratelimit.RateLimitBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${app.rate-limit.backend.stripes:16}")
+    private int stripes;
+
+    @Value("${app.rate-limit.backend.sweep-interval-ms:60000}")
+    private long sweepIntervalMs;
+
+    /**
+     * Node-local counters unless another {@link RateLimitBackend} bean is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean(RateLimitBackend.class)
+    public RateLimitBackend rateLimitBackend() {
+        return new InMemoryRateLimitBackend(stripes, sweepIntervalMs);
+    }
+}
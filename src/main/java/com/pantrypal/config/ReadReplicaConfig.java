@@ -0,0 +1,100 @@
+package com.pantrypal.config;
+
+import com.pantrypal.datasource.ReadWriteRoutingDataSource;
+import com.pantrypal.datasource.ReadYourWritesTracker;
+import com.pantrypal.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool ({@code spring.datasource.*})
+ * and a replica pool ({@code app.datasource.replica.*}) behind a read/write router. Both are
+ * ordinary Hikari beans, so {@code hikaricp.*} metrics are published per pool.
+ * <p>
+ * Read-your-writes is per node: {@link ReadYourWritesTracker} only knows the writes this
+ * instance committed. With several instances, a user whose next request lands on another
+ * node can read from the replica up to {@code max-lag-ms} behind their own write. Route
+ * each user to one node at the load balancer, or lower {@code max-lag-ms}, where that
+ * matters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMs);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaLagMonitor replicaLagMonitor) {
+        return new ReadYourWritesTracker(replicaLagMonitor, maxTrackedUsers);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       ReplicaLagMonitor replicaLagMonitor,
+                                                       ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor, readYourWritesTracker);
+    }
+
+    /**
+     * The DataSource JPA and JdbcTemplate use. The lazy proxy defers fetching a physical
+     * connection until the first statement, after the transaction's read-only flag is set.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
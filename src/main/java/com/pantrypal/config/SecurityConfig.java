@@ -1,7 +1,11 @@
 package com.pantrypal.config;
 
 import com.pantrypal.security.AuthEntryPointJwt;
+import com.pantrypal.security.BCryptStrengthCalibrator;
+import com.pantrypal.security.BoundedPasswordEncoder;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,13 +16,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -27,9 +32,38 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
+    private final UserRateLimitFilter userRateLimitFilter;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final CustomUserDetailsService userDetailsService;
 
+    // 0 = calibrate at startup to bcrypt.target-ms
+    @Value("${app.security.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${app.security.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${app.security.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${app.security.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // Actuator port; not published through the load balancer
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    // 0 = one thread per available processor
+    @Value("${app.security.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.hashing.queue-capacity:32}")
+    private int hashingQueueCapacity;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -45,21 +79,34 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/webjars/**"
+                                "/webjars/**",
+                                "/actuator/health/**",
+                                "/actuator/info"
                         ).permitAll()
+                        // Operator-only: migrations are run over JMX, never from the public API
+                        .requestMatchers("/actuator/shards/**").denyAll()
+                        // Scrapes come in on the management port; anywhere else they need a token
+                        .requestMatchers(this::isManagementRequest).permitAll()
                         .anyRequest().authenticated());
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(loginRateLimitFilter, JwtAuthenticationFilter.class);
+        http.addFilterAfter(userRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    private boolean isManagementRequest(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -68,9 +115,23 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt behind a {@link DelegatingPasswordEncoder}, so hashes are stored as {bcrypt}...
+     * and older unprefixed or weaker hashes are re-encoded on the next successful login.
+     * All hashing runs on the bounded pool of {@link BoundedPasswordEncoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptStrengthCalibrator.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity);
     }
 
     @Bean
@@ -86,7 +147,9 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(List.of("Authorization", "Refresh-Token"));
+        configuration.setExposedHeaders(List.of("Authorization", "Refresh-Token",
+                "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset", "Retry-After",
+                "ETag", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,194 @@
+package com.pantrypal.config;
+
+import com.pantrypal.monitoring.SqlStatementListener;
+import com.pantrypal.sharding.ConsistentHashShardResolver;
+import com.pantrypal.sharding.DirectoryShardResolver;
+import com.pantrypal.sharding.ShardMigrationService;
+import com.pantrypal.sharding.ShardResolver;
+import com.pantrypal.sharding.ShardRoutingDataSource;
+import com.pantrypal.sharding.ShardRoutingInterceptor;
+import com.pantrypal.sharding.ShardsEndpoint;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits storage into a directory database ({@code spring.datasource.*}: users, auth tables,
+ * outbox, shard directory) and inventory shards ({@code app.sharding.shards.<id>.*}).
+ * Requests to {@code @UserSharded} controllers run against the caller's shard.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig implements DisposableBean {
+
+    private static final String SHARDS_PREFIX = "app.sharding.shards.";
+
+    @Value("${app.sharding.mapping:directory}")
+    private String mapping;
+
+    @Value("${app.sharding.shard-ids}")
+    private List<String> shardIds;
+
+    @Value("${app.sharding.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${app.sharding.directory-cache-ttl-ms:5000}")
+    private long directoryCacheTtlMs;
+
+    @Value("${app.sharding.directory-cache-max-entries:100000}")
+    private int directoryCacheMaxEntries;
+
+    @Value("${app.sharding.migration-drain-ms:5000}")
+    private long migrationDrainMs;
+
+    @Value("${app.sharding.initialize-schema:false}")
+    private boolean initializeSchema;
+
+    @Value("${app.datasource.pool.acquisition-budget-ms:1000}")
+    private long acquisitionBudgetMs;
+
+    private final Map<String, HikariDataSource> shardPools = new LinkedHashMap<>();
+
+    public ShardingConfig(@Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("app.sharding.enabled and app.datasource.replica.enabled cannot both be set");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource directoryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("directory");
+        return dataSource;
+    }
+
+    /**
+     * Shard pools are built here rather than as beans because their number comes from
+     * configuration, so the SQL metrics proxy and Hikari metrics are attached by hand.
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(@Qualifier("directoryDataSource") DataSource directory,
+                                                         Environment environment,
+                                                         ObjectProvider<SqlStatementListener> sqlStatementListener,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (String shardId : shardIds) {
+            String prefix = SHARDS_PREFIX + shardId;
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(environment.getRequiredProperty(prefix + ".url"))
+                    .username(environment.getProperty(prefix + ".username", ""))
+                    .password(environment.getProperty(prefix + ".password", ""))
+                    .build();
+            pool.setConnectionTimeout(acquisitionBudgetMs);
+            binder.bind(prefix + ".hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("shard-" + shardId);
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            shardPools.put(shardId, pool);
+
+            if (initializeSchema) {
+                initializeShard(pool, environment.getProperty(prefix + ".id-offset", Long.class, 0L));
+            }
+
+            SqlStatementListener listener = sqlStatementListener.getIfAvailable();
+            shards.put(shardId, listener == null ? pool
+                    : ProxyDataSourceBuilder.create(pool).name("shard-" + shardId).listener(listener).build());
+        }
+        log.info("Sharding enabled: mapping={}, shards={}", mapping, shardIds);
+        return new ShardRoutingDataSource(directory, shards);
+    }
+
+    @Bean
+    public ShardResolver shardResolver(@Qualifier("directoryDataSource") DataSource directory) {
+        ShardResolver ring = new ConsistentHashShardResolver(shardIds, virtualNodes);
+        return switch (mapping) {
+            case "consistent-hash" -> ring;
+            case "directory" -> new DirectoryShardResolver(directory, ring, directoryCacheTtlMs, directoryCacheMaxEntries);
+            default -> throw new IllegalStateException("Unknown app.sharding.mapping: " + mapping);
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sharding.mapping", havingValue = "directory", matchIfMissing = true)
+    public ShardMigrationService shardMigrationService(ShardResolver shardResolver,
+                                                       ShardRoutingDataSource shardRoutingDataSource) {
+        // Waiting one cache TTL guarantees every node has seen the migrating flag or the repoint
+        return new ShardMigrationService((DirectoryShardResolver) shardResolver,
+                shardRoutingDataSource.getShards(), directoryCacheTtlMs, migrationDrainMs);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sharding.mapping", havingValue = "directory", matchIfMissing = true)
+    public ShardsEndpoint shardsEndpoint(ShardResolver shardResolver, ShardMigrationService shardMigrationService) {
+        return new ShardsEndpoint((DirectoryShardResolver) shardResolver, shardMigrationService);
+    }
+
+    @Bean
+    public WebMvcConfigurer shardRoutingWebMvcConfigurer(ShardResolver shardResolver) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ShardRoutingInterceptor(shardResolver));
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        shardPools.values().forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Migrates the shard tables (db/shard, with its own history table so a shard can share a
+     * database with the directory) and moves the id sequence into this shard's range, so
+     * item ids stay unique across shards and survive a migration unchanged.
+     */
+    private static void initializeShard(DataSource shard, long idOffset) {
+        Flyway.configure()
+                .dataSource(shard)
+                .locations("classpath:db/shard")
+                .table("flyway_shard_history")
+                .load()
+                .migrate();
+        if (idOffset > 0) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM inventory_items", Long.class);
+            jdbcTemplate.execute("ALTER TABLE inventory_items AUTO_INCREMENT = " + (Math.max(maxId, idOffset) + 1));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pantrypal.config;
+
+import com.pantrypal.monitoring.SqlMetrics;
+import com.pantrypal.monitoring.SqlMetricsFilter;
+import com.pantrypal.monitoring.SqlStatementListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource in a lightweight proxy that counts and times statements,
+ * replacing SQL debug logging as the way to see what an endpoint does in production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlStatementListener sqlStatementListener(@Value("${app.sql-metrics.slow-statement-ms:200}") long slowStatementMs) {
+        return new SqlStatementListener(slowStatementMs);
+    }
+
+    @Bean
+    public SqlMetrics sqlMetrics(MeterRegistry meterRegistry) {
+        return new SqlMetrics(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilter(
+            SqlMetrics sqlMetrics,
+            @Value("${app.sql-metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        FilterRegistrationBean<SqlMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlMetricsFilter(sqlMetrics, nPlusOneThreshold));
+        // Ahead of Spring Security, so statements issued while authenticating are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceProxy(ObjectProvider<SqlStatementListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Routers and lazy proxies only delegate; wrapping them too would count every statement twice
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
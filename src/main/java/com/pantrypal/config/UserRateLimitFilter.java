@@ -0,0 +1,151 @@
+package com.pantrypal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.dto.response.ApiResponse;
+import com.pantrypal.entity.User;
+import com.pantrypal.ratelimit.RateLimitBackend;
+import com.pantrypal.ratelimit.RateLimitDecision;
+import com.pantrypal.ratelimit.WindowRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user limits for authenticated requests, applied once {@link JwtAuthenticationFilter}
+ * has resolved the user: a sliding per-minute limit for all endpoints, a tighter one for
+ * the heavy list and stats endpoints, and a daily quota. Each response carries
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} for the
+ * limit closest to being exhausted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    @Value("${app.rate-limit.user.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.user.requests-per-minute:300}")
+    private long requestsPerMinute;
+
+    @Value("${app.rate-limit.user.heavy-requests-per-minute:60}")
+    private long heavyRequestsPerMinute;
+
+    @Value("${app.rate-limit.user.heavy-paths:/items/all,/stats/summary}")
+    private List<String> heavyPaths;
+
+    @Value("${app.rate-limit.user.daily-quota:50000}")
+    private long dailyQuota;
+
+    private final RateLimitBackend backend;
+    private final ObjectMapper objectMapper;
+
+    private WindowRateLimiter perMinute;
+    private WindowRateLimiter heavyPerMinute;
+    private WindowRateLimiter daily;
+
+    private final AtomicLong rejectedByRate = new AtomicLong();
+    private final AtomicLong rejectedByQuota = new AtomicLong();
+
+    @PostConstruct
+    void createLimiters() {
+        long minute = Duration.ofMinutes(1).toMillis();
+        perMinute = WindowRateLimiter.sliding("user-minute", backend, requestsPerMinute, minute);
+        heavyPerMinute = WindowRateLimiter.sliding("user-heavy-minute", backend, heavyRequestsPerMinute, minute);
+        daily = WindowRateLimiter.fixed("user-day", backend, dailyQuota, Duration.ofDays(1).toMillis());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Long userId = enabled ? currentUserId() : null;
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = userId.toString();
+        long now = System.currentTimeMillis();
+
+        RateLimitDecision decision = perMinute.tryAcquire(key, now);
+        if (decision.isAllowed() && heavyPaths.contains(path(request))) {
+            decision = tighter(decision, heavyPerMinute.tryAcquire(key, now));
+        }
+        if (!decision.isAllowed()) {
+            rejectedByRate.incrementAndGet();
+            reject(response, decision, "Rate limit exceeded");
+            return;
+        }
+
+        RateLimitDecision quota = daily.tryAcquire(key, now);
+        if (!quota.isAllowed()) {
+            rejectedByQuota.incrementAndGet();
+            reject(response, quota, "Daily request quota exceeded");
+            return;
+        }
+
+        writeHeaders(response, tighter(decision, quota));
+        filterChain.doFilter(request, response);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static RateLimitDecision tighter(RateLimitDecision a, RateLimitDecision b) {
+        if (a.isAllowed() != b.isAllowed()) {
+            return a.isAllowed() ? b : a;
+        }
+        return b.getRemaining() < a.getRemaining() ? b : a;
+    }
+
+    private static void writeHeaders(HttpServletResponse response, RateLimitDecision decision) {
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision, String message) throws IOException {
+        writeHeaders(response, decision);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getResetSeconds()));
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    public long getRejectedByRateCount() {
+        return rejectedByRate.get();
+    }
+
+    public long getRejectedByQuotaCount() {
+        return rejectedByQuota.get();
+    }
+}
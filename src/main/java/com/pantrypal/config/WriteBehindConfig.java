@@ -0,0 +1,40 @@
+package com.pantrypal.config;
+
+import com.pantrypal.datasource.ReadYourWritesTracker;
+import com.pantrypal.writebehind.StatusWriteBuffer;
+import com.pantrypal.writebehind.WriteBehindFlushInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in write-behind for {@code PATCH /items/{id}/status}; see {@link StatusWriteBuffer}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.inventory.status-buffer.enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Bean
+    public StatusWriteBuffer statusWriteBuffer(DataSource dataSource,
+                                               ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                               @Value("${app.inventory.status-buffer.window-ms:2000}") long windowMs,
+                                               @Value("${app.inventory.status-buffer.max-items-per-user:100}") int maxItemsPerUser) {
+        return new StatusWriteBuffer(dataSource, readYourWritesTracker.getIfAvailable(), windowMs, maxItemsPerUser);
+    }
+
+    @Bean
+    public WebMvcConfigurer writeBehindWebMvcConfigurer(StatusWriteBuffer statusWriteBuffer) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new WriteBehindFlushInterceptor(statusWriteBuffer));
+            }
+        };
+    }
+}
@@ -6,12 +6,15 @@ import com.pantrypal.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/auth")
+@Validated
 @RequiredArgsConstructor
 @Tag(name = "Authentication", description = "Authentication endpoints")
 public class AuthController {
@@ -25,6 +28,13 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(response, "Registration successful"));
     }
 
+    @GetMapping("/username-available")
+    @Operation(summary = "Check whether a username is still available")
+    public ResponseEntity<ApiResponse<UsernameAvailabilityResponse>> usernameAvailable(
+            @RequestParam @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters") String username) {
+        return ResponseEntity.ok(ApiResponse.success(authService.checkUsernameAvailability(username)));
+    }
+
     @PostMapping("/login")
     @Operation(summary = "Login user")
     public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
@@ -2,14 +2,21 @@ package com.pantrypal.controller;
 
 import com.pantrypal.dto.request.*;
 import com.pantrypal.dto.response.*;
+import com.pantrypal.exception.ValidationException;
+import com.pantrypal.idempotency.Idempotent;
 import com.pantrypal.service.InventoryService;
 import com.pantrypal.security.CurrentUser;
+import com.pantrypal.sharding.UserSharded;
+import com.pantrypal.writebehind.StatusWriteBuffer;
+import com.pantrypal.writebehind.WriteBehind;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,10 +26,12 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@UserSharded
 @Tag(name = "Inventory", description = "Inventory management endpoints")
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final ObjectProvider<StatusWriteBuffer> statusWriteBuffer;
 
 //    @GetMapping
 //    @Operation(summary = "Get all inventory items with optional filters")
@@ -86,10 +95,11 @@ public class InventoryController {
             @PathVariable Long id) {
 
         InventoryItemResponse item = inventoryService.getItem(userId, id);
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok().eTag(String.valueOf(item.getVersion())).body(item);
     }
 
     @PostMapping
+    @Idempotent
     @Operation(summary = "Create a new inventory item")
     public ResponseEntity<ApiResponse<InventoryItemResponse>> createItem(
             @CurrentUser Long userId,
@@ -100,6 +110,7 @@ public class InventoryController {
     }
 
     @PostMapping("/bulk")
+    @Idempotent
     @Operation(summary = "Create multiple inventory items at once")
     public ResponseEntity<ApiResponse<java.util.List<InventoryItemResponse>>> bulkCreateItems(
             @CurrentUser Long userId,
@@ -109,15 +120,28 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success(items, "Items created successfully"));
     }
 
+    @PostMapping("/batch")
+    @Idempotent
+    @Operation(summary = "Run an ordered list of create, patch, status and delete operations in one transaction")
+    public ResponseEntity<ApiResponse<java.util.List<BatchOperationResult>>> executeBatch(
+            @CurrentUser Long userId,
+            @Valid @RequestBody BatchOperationsRequest request) {
+
+        java.util.List<BatchOperationResult> results = inventoryService.executeBatch(userId, request);
+        return ResponseEntity.ok(ApiResponse.success(results, "Batch applied successfully"));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an entire inventory item")
     public ResponseEntity<ApiResponse<InventoryItemResponse>> updateItem(
             @CurrentUser Long userId,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody InventoryItemRequest request) {
 
-        InventoryItemResponse item = inventoryService.updateItem(userId, id, request);
-        return ResponseEntity.ok(ApiResponse.success(item, "Item updated successfully"));
+        InventoryItemResponse item = inventoryService.updateItem(userId, id, request, parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(item.getVersion()))
+                .body(ApiResponse.success(item, "Item updated successfully"));
     }
 
     @PatchMapping("/{id}")
@@ -125,30 +149,49 @@ public class InventoryController {
     public ResponseEntity<ApiResponse<InventoryItemResponse>> patchItem(
             @CurrentUser Long userId,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody InventoryItemRequest request) {
 
-        InventoryItemResponse item = inventoryService.patchItem(userId, id, request);
-        return ResponseEntity.ok(ApiResponse.success(item, "Item updated successfully"));
+        InventoryItemResponse item = inventoryService.patchItem(userId, id, request, parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(item.getVersion()))
+                .body(ApiResponse.success(item, "Item updated successfully"));
     }
 
     @PatchMapping("/{id}/status")
+    @WriteBehind
     @Operation(summary = "Update only the status of an item")
     public ResponseEntity<ApiResponse<InventoryItemResponse>> updateItemStatus(
             @CurrentUser Long userId,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody StatusUpdateRequest request) {
 
-        InventoryItemResponse item = inventoryService.updateItemStatus(userId, id, request);
-        return ResponseEntity.ok(ApiResponse.success(item, "Status updated successfully"));
+        // With write-behind enabled an unconditional change is buffered and applied within the window
+        StatusWriteBuffer buffer = statusWriteBuffer.getIfAvailable();
+        if (ifMatch == null && buffer != null) {
+            inventoryService.requireOwnedItem(userId, id);
+            if (buffer.offer(userId, id, request.getStatus())) {
+                InventoryItemResponse pending = InventoryItemResponse.builder()
+                        .id(id)
+                        .status(request.getStatus().toLowerCase())
+                        .build();
+                return ResponseEntity.accepted().body(ApiResponse.success(pending, "Status update accepted"));
+            }
+        }
+
+        InventoryItemResponse item = inventoryService.updateItemStatus(userId, id, request, parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(item.getVersion()))
+                .body(ApiResponse.success(item, "Status updated successfully"));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete an inventory item")
     public ResponseEntity<ApiResponse<Void>> deleteItem(
             @CurrentUser Long userId,
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        inventoryService.deleteItem(userId, id);
+        inventoryService.deleteItem(userId, id, parseIfMatch(ifMatch));
         return ResponseEntity.ok(ApiResponse.success(null, "Item deleted successfully"));
     }
 
@@ -158,7 +201,7 @@ public class InventoryController {
             @CurrentUser Long userId,
             @Valid @RequestBody BulkDeleteRequest request) {
 
-        int deletedCount = inventoryService.bulkDeleteItems(userId, request.getIds());
+        int deletedCount = inventoryService.bulkDeleteItems(userId, request.getIds(), request.getVersions());
         return ResponseEntity.ok(ApiResponse.success(deletedCount, "Items deleted successfully"));
     }
 
@@ -181,4 +224,26 @@ public class InventoryController {
         java.util.List<InventoryItemResponse> items = inventoryService.getUpcomingItems(userId, days);
         return ResponseEntity.ok(ApiResponse.success(items));
     }
+
+    /**
+     * The ETag of an item is its version. Accepts {@code "3"}, {@code W/"3"} or a bare
+     * {@code 3}; a missing header or {@code *} means an unconditional write.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("If-Match must be a single item version, e.g. \"3\"");
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.pantrypal.controller;
+
+import com.pantrypal.dto.response.*;
+import com.pantrypal.security.CurrentUser;
+import com.pantrypal.service.RefreshTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/sessions")
+@RequiredArgsConstructor
+@Tag(name = "Sessions", description = "Per-device session management endpoints")
+public class SessionController {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @GetMapping
+    @Operation(summary = "List active sessions for the current user")
+    public ResponseEntity<ApiResponse<List<SessionResponse>>> getSessions(@CurrentUser Long userId) {
+        List<SessionResponse> sessions = refreshTokenService.getActiveSessions(userId).stream()
+                .map(token -> SessionResponse.builder()
+                        .deviceId(token.getDeviceId())
+                        .deviceName(token.getDeviceName())
+                        .createdAt(token.getCreatedAt())
+                        .lastUsedAt(token.getLastUsedAt())
+                        .expiresAt(token.getExpiryDate())
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(sessions));
+    }
+
+    @DeleteMapping("/{deviceId}")
+    @Operation(summary = "Revoke the session of one device")
+    public ResponseEntity<ApiResponse<Void>> revokeSession(
+            @CurrentUser Long userId,
+            @PathVariable String deviceId) {
+
+        refreshTokenService.revokeSession(userId, deviceId);
+        return ResponseEntity.ok(ApiResponse.success(null, "Session revoked successfully"));
+    }
+}
@@ -3,6 +3,7 @@ package com.pantrypal.controller;
 import com.pantrypal.dto.response.*;
 import com.pantrypal.service.StatsService;
 import com.pantrypal.security.CurrentUser;
+import com.pantrypal.sharding.UserSharded;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/stats")
 @RequiredArgsConstructor
+@UserSharded
 @Tag(name = "Statistics", description = "Statistics and analytics endpoints")
 public class StatsController {
 
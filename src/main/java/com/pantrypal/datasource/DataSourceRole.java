@@ -0,0 +1,6 @@
+package com.pantrypal.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,169 @@
+package com.pantrypal.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sizes Hikari pools from what they actually do. Every sample records the peak of active
+ * plus waiting connections; at the end of each window the average number of connections
+ * in use (total usage time / window, i.e. Little's law) is multiplied by {@code headroom}.
+ * If callers waited longer than {@code targetWaitMs} on average, the recommendation is
+ * raised toward the observed peak demand. In {@code adjust} mode the pool's maximum size
+ * moves toward the recommendation by at most {@code maxStep} per window; in {@code report}
+ * mode the recommendation is only logged and published.
+ */
+@Slf4j
+public class PoolAutotuner {
+
+    public enum Mode { OFF, REPORT, ADJUST }
+
+    private final Supplier<List<HikariDataSource>> pools;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final long windowMs;
+    private final int minSize;
+    private final int maxSize;
+    private final double headroom;
+    private final long targetWaitMs;
+    private final int maxStep;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public PoolAutotuner(Supplier<List<HikariDataSource>> pools, MeterRegistry meterRegistry, Mode mode, long windowMs,
+                         int minSize, int maxSize, double headroom, long targetWaitMs, int maxStep) {
+        this.pools = pools;
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.windowMs = windowMs;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.headroom = headroom;
+        this.targetWaitMs = targetWaitMs;
+        this.maxStep = maxStep;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.pool.autotune.sample-interval-ms:1000}",
+            initialDelayString = "${app.datasource.pool.autotune.sample-interval-ms:1000}")
+    public void tick() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (HikariDataSource pool : pools.get()) {
+            Window window = windows.computeIfAbsent(pool.getPoolName(), name -> new Window(now, usage(name), acquire(name)));
+            sample(pool, window);
+            if (now - window.startedAt >= windowMs) {
+                evaluate(pool, window, now);
+            }
+        }
+    }
+
+    /**
+     * Closes the current window for every pool and applies the result; for tests and
+     * operators who do not want to wait for the schedule.
+     */
+    public void evaluateNow() {
+        long now = System.currentTimeMillis();
+        for (HikariDataSource pool : pools.get()) {
+            Window window = windows.computeIfAbsent(pool.getPoolName(), name -> new Window(now, usage(name), acquire(name)));
+            sample(pool, window);
+            evaluate(pool, window, now);
+        }
+    }
+
+    public List<HikariDataSource> getPools() {
+        return pools.get();
+    }
+
+    public int getRecommendedSize(String poolName) {
+        Window window = windows.get(poolName);
+        return window != null ? window.recommended : -1;
+    }
+
+    private void sample(HikariDataSource pool, Window window) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        if (bean != null) {
+            window.peakDemand = Math.max(window.peakDemand, bean.getActiveConnections() + bean.getThreadsAwaitingConnection());
+        }
+    }
+
+    private void evaluate(HikariDataSource pool, Window window, long now) {
+        String name = pool.getPoolName();
+        Snapshot usage = usage(name);
+        Snapshot acquire = acquire(name);
+        double elapsedMs = Math.max(1, now - window.startedAt);
+
+        double busy = (usage.totalMs - window.usage.totalMs) / elapsedMs;
+        long acquisitions = acquire.count - window.acquire.count;
+        double meanWaitMs = acquisitions > 0 ? (acquire.totalMs - window.acquire.totalMs) / acquisitions : 0;
+
+        int current = pool.getMaximumPoolSize();
+        int recommended = (int) Math.ceil(busy * headroom);
+        if (meanWaitMs > targetWaitMs) {
+            recommended = Math.max(recommended, Math.min(window.peakDemand, current + maxStep));
+        }
+        recommended = Math.max(minSize, Math.min(maxSize, recommended));
+        window.recommended = recommended;
+
+        if (recommended != current) {
+            log.info("Pool {}: busy={} meanWait={}ms peakDemand={} size={} recommended={}",
+                    name, String.format("%.2f", busy), String.format("%.1f", meanWaitMs), window.peakDemand, current, recommended);
+            if (mode == Mode.ADJUST) {
+                resize(pool, current, current + Math.max(-maxStep, Math.min(maxStep, recommended - current)));
+            }
+        }
+
+        window.startedAt = now;
+        window.usage = usage;
+        window.acquire = acquire;
+        window.peakDemand = 0;
+    }
+
+    private static void resize(HikariDataSource pool, int current, int target) {
+        // A fixed-size pool (minimum-idle == maximum-pool-size) stays fixed at the new size
+        if (pool.getMinimumIdle() >= current) {
+            pool.getHikariConfigMXBean().setMinimumIdle(target);
+        }
+        pool.getHikariConfigMXBean().setMaximumPoolSize(target);
+        log.info("Pool {} resized from {} to {}", pool.getPoolName(), current, target);
+    }
+
+    private Snapshot usage(String poolName) {
+        return snapshot(meterRegistry.find("hikaricp.connections.usage").tag("pool", poolName).timer());
+    }
+
+    private Snapshot acquire(String poolName) {
+        return snapshot(meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer());
+    }
+
+    private static Snapshot snapshot(Timer timer) {
+        return timer == null ? new Snapshot(0, 0) : new Snapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    private record Snapshot(long count, double totalMs) {
+    }
+
+    private static class Window {
+        private long startedAt;
+        private Snapshot usage;
+        private Snapshot acquire;
+        private int peakDemand;
+        private volatile int recommended = -1;
+
+        private Window(long startedAt, Snapshot usage, Snapshot acquire) {
+            this.startedAt = startedAt;
+            this.usage = usage;
+            this.acquire = acquire;
+        }
+    }
+}
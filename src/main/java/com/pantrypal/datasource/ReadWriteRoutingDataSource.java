@@ -0,0 +1,127 @@
+package com.pantrypal.datasource;
+
+import com.pantrypal.entity.User;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. A
+ * read-only transaction still goes to the primary when the replica is lagging, when the
+ * current user has a write the replica has not applied yet, or inside
+ * {@link #usePrimary(Supplier)}.
+ * <p>
+ * The routing key is read when a connection is first requested, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}; otherwise the transaction manager fetches the
+ * connection before the read-only flag is visible.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final AtomicLong primaryWrites = new AtomicLong();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong lagFallbacks = new AtomicLong();
+    private final AtomicLong readYourWritesFallbacks = new AtomicLong();
+    private final AtomicLong forcedPrimaryReads = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs {@code action} with all reads on the primary, for reads that must not be stale,
+     * such as checking a password that may have just been reset.
+     */
+    public static <T> T usePrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.incrementAndGet();
+            trackWrite();
+            return DataSourceRole.PRIMARY;
+        }
+        if (PRIMARY_FORCED.get() != null) {
+            forcedPrimaryReads.incrementAndGet();
+            return DataSourceRole.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagFallbacks.incrementAndGet();
+            return DataSourceRole.PRIMARY;
+        }
+        if (readYourWrites.mustReadFromPrimary(currentUserId())) {
+            readYourWritesFallbacks.incrementAndGet();
+            return DataSourceRole.PRIMARY;
+        }
+        replicaReads.incrementAndGet();
+        return DataSourceRole.REPLICA;
+    }
+
+    private void trackWrite() {
+        Long userId = currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(userId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    public long getPrimaryWriteCount() {
+        return primaryWrites.get();
+    }
+
+    public long getReplicaReadCount() {
+        return replicaReads.get();
+    }
+
+    public long getLagFallbackCount() {
+        return lagFallbacks.get();
+    }
+
+    public long getReadYourWritesFallbackCount() {
+        return readYourWritesFallbacks.get();
+    }
+
+    public long getForcedPrimaryReadCount() {
+        return forcedPrimaryReads.get();
+    }
+}
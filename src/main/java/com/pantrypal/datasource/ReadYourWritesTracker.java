@@ -0,0 +1,70 @@
+package com.pantrypal.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write so their reads stay on the primary
+ * until the replica has caught up past that write. An entry is dropped as soon as the
+ * replica's heartbeat is newer than it. If too many users are pending at once (for
+ * example while the replica is down) the map is collapsed into a single cut-off that
+ * keeps everyone on the primary until the replica passes it.
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final int maxTrackedUsers;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    private volatile long overflowWriteMillis = Long.MIN_VALUE;
+
+    public ReadYourWritesTracker(ReplicaLagMonitor lagMonitor, int maxTrackedUsers) {
+        this.lagMonitor = lagMonitor;
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    public void recordWrite(Long userId, long committedAtMillis) {
+        lastWriteByUser.merge(userId, committedAtMillis, Math::max);
+        if (lastWriteByUser.size() > maxTrackedUsers) {
+            prune();
+        }
+    }
+
+    public boolean mustReadFromPrimary(Long userId) {
+        long replicaHeartbeat = lagMonitor.getReplicaHeartbeatMillis();
+        if (overflowWriteMillis >= replicaHeartbeat) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (lastWrite < replicaHeartbeat) {
+            lastWriteByUser.remove(userId, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void prune() {
+        long replicaHeartbeat = lagMonitor.getReplicaHeartbeatMillis();
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < replicaHeartbeat);
+        if (lastWriteByUser.size() > maxTrackedUsers) {
+            long newest = lastWriteByUser.values().stream().mapToLong(Long::longValue).max().orElse(Long.MIN_VALUE);
+            overflowWriteMillis = Math.max(overflowWriteMillis, newest);
+            lastWriteByUser.clear();
+            log.warn("More than {} users waiting on replica catch-up; routing all reads to the primary for now",
+                    maxTrackedUsers);
+        }
+    }
+
+    public int size() {
+        return lastWriteByUser.size();
+    }
+}
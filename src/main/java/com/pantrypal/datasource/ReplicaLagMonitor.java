@@ -0,0 +1,113 @@
+package com.pantrypal.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures replica lag with a heartbeat: every interval the primary's
+ * {@code replication_heartbeat} row is stamped with the current time and the same row is
+ * read back from the replica. The replica is only used for reads while the difference
+ * stays within {@code maxLagMs}; an unreachable replica or a missing row counts as too far
+ * behind. Because the stamp is only refreshed once per interval, {@code maxLagMs} must be
+ * comfortably larger than the heartbeat interval.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String UPDATE_BEAT = "UPDATE replication_heartbeat SET beat_at_millis = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replication_heartbeat (id, beat_at_millis) VALUES (1, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at_millis FROM replication_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable;
+    private volatile long replicaHeartbeatMillis = Long.MIN_VALUE;
+    private volatile long lagMillis = -1;
+
+    private final AtomicLong failedChecks = new AtomicLong();
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}",
+            initialDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void tick() {
+        beat();
+        check();
+    }
+
+    public void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_BEAT, now) == 0) {
+                primary.update(INSERT_BEAT, now);
+            }
+        } catch (DuplicateKeyException e) {
+            // Another node inserted the row first; its stamp is as good as ours
+        } catch (DataAccessException e) {
+            log.warn("Could not write replication heartbeat: {}", e.getMessage());
+        }
+    }
+
+    public void check() {
+        Long beat;
+        try {
+            beat = replica.query(SELECT_BEAT, rs -> rs.next() ? rs.getLong(1) : null);
+        } catch (DataAccessException e) {
+            failedChecks.incrementAndGet();
+            update(false, -1, "replica unreachable: " + e.getMessage());
+            return;
+        }
+        if (beat == null) {
+            update(false, -1, "no heartbeat replicated yet");
+            return;
+        }
+
+        replicaHeartbeatMillis = beat;
+        long lag = Math.max(0, System.currentTimeMillis() - beat);
+        update(lag <= maxLagMs, lag, "lag " + lag + " ms exceeds " + maxLagMs + " ms");
+    }
+
+    private void update(boolean usable, long lag, String reason) {
+        lagMillis = lag;
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica back in rotation for reads, lag {} ms", lag);
+            } else {
+                log.warn("Replica taken out of rotation for reads: {}", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Primary time of the newest heartbeat the replica has applied; every write committed
+     * before this instant is visible on the replica.
+     */
+    public long getReplicaHeartbeatMillis() {
+        return replicaHeartbeatMillis;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getFailedCheckCount() {
+        return failedChecks.get();
+    }
+}
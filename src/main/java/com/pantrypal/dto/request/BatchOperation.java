@@ -0,0 +1,32 @@
+package com.pantrypal.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+/**
+ * One step of a {@code POST /items/batch} request. {@code create} and {@code patch} take
+ * {@code item}, {@code status} takes {@code status}; every op except {@code create} needs
+ * {@code id}. {@code version} is optional and is compared with the item as it was before
+ * the batch started.
+ */
+@Data
+public class BatchOperation {
+    @NotBlank(message = "Operation is required")
+    @Pattern(regexp = "^(create|patch|status|delete)$",
+            flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Operation must be one of: create, patch, status, delete")
+    private String op;
+
+    private Long id;
+
+    private Long version;
+
+    @Valid
+    private InventoryItemRequest item;
+
+    @Pattern(regexp = "^(in_stock|low|out_of_stock)$",
+            flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Status must be one of: in_stock, low, out_of_stock")
+    private String status;
+}
@@ -0,0 +1,12 @@
+package com.pantrypal.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+@Data
+public class BatchOperationsRequest {
+    @NotEmpty(message = "Operations list cannot be empty")
+    @Size(max = 100, message = "Cannot run more than 100 operations at once")
+    private java.util.List<@Valid BatchOperation> operations;
+}
@@ -9,4 +9,7 @@ import java.util.UUID;
 public class BulkDeleteRequest {
     @NotEmpty(message = "Item IDs cannot be empty")
     private java.util.List<Long> ids;
+
+    // Optional expected version per id; when present nothing is deleted unless every listed version matches
+    private java.util.Map<Long, Long> versions;
 }
@@ -18,4 +18,10 @@ public class RegisterRequest {
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     private String password;
+
+    @Size(max = 64, message = "Device ID cannot exceed 64 characters")
+    private String deviceId;
+
+    @Size(max = 100, message = "Device name cannot exceed 100 characters")
+    private String deviceName;
 }
@@ -0,0 +1,22 @@
+package com.pantrypal.dto.response;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch operation, in request order. {@code item} is the item as committed
+ * at the end of the batch and is absent for deletes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOperationResult {
+    private int index;
+    private String op;
+    private Long id;
+    private InventoryItemResponse item;
+}
@@ -28,4 +28,5 @@ public class InventoryItemResponse {
     private LocalDate needBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
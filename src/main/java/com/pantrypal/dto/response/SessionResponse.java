@@ -0,0 +1,20 @@
+package com.pantrypal.dto.response;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionResponse {
+    private String deviceId;
+    private String deviceName;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastUsedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.pantrypal.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameAvailabilityResponse {
+    private String username;
+    private boolean available;
+}
@@ -0,0 +1,21 @@
+package com.pantrypal.dto.response;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item whose version did not match what the client sent. {@code currentVersion} is
+ * null when the item no longer exists.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VersionConflictResponse {
+    private Long id;
+    private Long expectedVersion;
+    private Long currentVersion;
+}
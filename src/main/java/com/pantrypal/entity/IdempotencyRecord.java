@@ -0,0 +1,47 @@
+package com.pantrypal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * The outcome of a request sent with an {@code Idempotency-Key}. A row without a status
+ * is a claim held by a request that is still running.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // Method and path, e.g. "POST /items/bulk"; a key cannot be reused on another endpoint
+    @Column(nullable = false, length = 100)
+    private String endpoint;
+
+    private Integer statusCode;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -13,14 +13,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Indexes mirror db/migration, which is the source of truth for the MySQL schema
 @Entity
 @Table(name = "inventory_items", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_category", columnList = "category"),
-        @Index(name = "idx_status", columnList = "status"),
         @Index(name = "idx_user_category", columnList = "user_id, category"),
         @Index(name = "idx_user_status", columnList = "user_id, status"),
-        @Index(name = "idx_need_by", columnList = "need_by")
+        @Index(name = "idx_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_user_need_by", columnList = "user_id, need_by"),
+        @Index(name = "idx_user_frequency", columnList = "user_id, frequency"),
+        @Index(name = "idx_user_name", columnList = "user_id, name")
 })
 @Data
 @NoArgsConstructor
@@ -68,4 +69,9 @@ public class InventoryItem {
     @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    // Hibernate adds "AND version = ?" to every UPDATE and DELETE and increments it on write
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
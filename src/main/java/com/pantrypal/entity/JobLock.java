@@ -0,0 +1,27 @@
+package com.pantrypal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A named lease used to elect a single node for cluster-wide scheduled jobs.
+ */
+@Entity
+@Table(name = "job_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false, length = 100)
+    private String lockedBy;
+}
@@ -11,6 +11,8 @@ import java.util.UUID;
 @Table(name = "refresh_tokens", indexes = {
         @Index(name = "idx_token", columnList = "token"),
         @Index(name = "idx_user_id", columnList = "user_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_token_user_device", columnNames = {"user_id", "device_id"})
 })
 @Data
 @NoArgsConstructor
@@ -26,12 +28,21 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_refresh_token_user"))
     private User user;
 
-    @Column(nullable = false, unique = true, length = 255)
+    // Raw UUID (36 chars) or its SHA-256 hex digest (64 chars) when hashing is enabled
+    @Column(nullable = false, unique = true, length = 64)
     private String token;
 
+    @Column(name = "device_id", nullable = false, length = 64)
+    private String deviceId;
+
+    @Column(length = 100)
+    private String deviceName;
+
     @Column(nullable = false)
     private LocalDateTime expiryDate;
 
+    private LocalDateTime lastUsedAt;
+
     @Column(nullable = false)
     @Builder.Default
     private boolean revoked = false;
@@ -0,0 +1,23 @@
+package com.pantrypal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row table the primary stamps with the current time; reading it back from a
+ * replica tells how far behind that replica is.
+ */
+@Entity
+@Table(name = "replication_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplicationHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at_millis", nullable = false)
+    private Long beatAtMillis;
+}
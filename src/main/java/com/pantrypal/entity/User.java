@@ -15,8 +15,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "email"),
-        @UniqueConstraint(columnNames = "username")
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username")
 })
 @Data
 @NoArgsConstructor
@@ -25,6 +25,9 @@ import java.util.UUID;
 @ToString(exclude = {"inventoryItems", "refreshTokens"})
 public class User implements UserDetails {
 
+    public static final String UK_EMAIL = "uk_users_email";
+    public static final String UK_USERNAME = "uk_users_username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
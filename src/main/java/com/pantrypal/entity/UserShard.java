@@ -0,0 +1,33 @@
+package com.pantrypal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Directory entry recording which shard holds a user's inventory. Lives in the directory
+ * database next to {@code users}.
+ */
+@Entity
+@Table(name = "user_shards", indexes = {
+        @Index(name = "idx_user_shards_shard", columnList = "shard_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserShard {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "shard_id", nullable = false, length = 32)
+    private String shardId;
+
+    @Column(nullable = false)
+    private boolean migrating;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,6 @@
+package com.pantrypal.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
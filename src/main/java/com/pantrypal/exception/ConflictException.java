@@ -0,0 +1,33 @@
+package com.pantrypal.exception;
+
+import com.pantrypal.dto.response.VersionConflictResponse;
+
+import java.util.List;
+
+/**
+ * A write conflicted with another one: a conditional write found a newer version than the
+ * client based its change on, or a retry arrived while the original was still running.
+ * Nothing was written; the client should refetch the listed items and retry.
+ */
+public class ConflictException extends RuntimeException {
+
+    private final List<VersionConflictResponse> conflicts;
+
+    public ConflictException(String message) {
+        this(message, List.of());
+    }
+
+    public ConflictException(String message, List<VersionConflictResponse> conflicts) {
+        super(message);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public static ConflictException of(Long itemId, Long expectedVersion, Long currentVersion) {
+        return new ConflictException("Item " + itemId + " was modified by another request",
+                List.of(new VersionConflictResponse(itemId, expectedVersion, currentVersion)));
+    }
+
+    public List<VersionConflictResponse> getConflicts() {
+        return conflicts;
+    }
+}
@@ -1,14 +1,22 @@
 package com.pantrypal.exception;
 
 import com.pantrypal.dto.response.ApiResponse;
+import com.pantrypal.monitoring.LogThrottle;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,6 +27,8 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final LogThrottle logThrottle = new LogThrottle(10_000);
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<?>> handleResourceNotFound(ResourceNotFoundException ex, WebRequest request) {
         log.error("Resource not found: {}", ex.getMessage());
@@ -34,7 +44,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ApiResponse<?>> handleUnauthorized(UnauthorizedException ex, WebRequest request) {
-        log.error("Unauthorized: {}", ex.getMessage());
+        long suppressed = logThrottle.acquire(ex.getMessage());
+        if (suppressed >= 0) {
+            log.warn("Unauthorized: {} [{} similar suppressed]", ex.getMessage(), suppressed);
+        }
 
         ApiResponse<?> response = ApiResponse.builder()
                 .success(false)
@@ -71,6 +84,94 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<?>> handleConflict(ConflictException ex, WebRequest request) {
+        log.debug("Version conflict: {}", ex.getMessage());
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .data(ex.getConflicts())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Another request committed between our read and our versioned UPDATE; same outcome as
+     * a stale If-Match, only detected later.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<?>> handleOptimisticLock(OptimisticLockingFailureException ex, WebRequest request) {
+        log.debug("Optimistic lock failure: {}", ex.getMessage());
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message("Item was modified by another request")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<?>> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        log.warn("Too many requests: {}", ex.getMessage());
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailable(ServiceUnavailableException ex, WebRequest request) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(response);
+    }
+
+    /**
+     * A pool that cannot hand out a connection within the acquisition budget means the
+     * database is saturated; tell the client to back off instead of reporting a failure.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse<?>> handleDataSourceUnavailable(Exception ex, WebRequest request) {
+        if (!(NestedExceptionUtils.getRootCause(ex) instanceof SQLTransientConnectionException)) {
+            return handleGlobalException(ex, request);
+        }
+
+        long suppressed = logThrottle.acquire("connection-timeout");
+        if (suppressed >= 0) {
+            log.warn("Connection pool exhausted: {} [{} similar suppressed]",
+                    NestedExceptionUtils.getMostSpecificCause(ex).getMessage(), suppressed);
+        }
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message("The service is busy, please retry shortly")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, List<String>> errors = new HashMap<>();
@@ -92,6 +193,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResponse<?>> handleConstraintViolations(ConstraintViolationException ex) {
+        Map<String, List<String>> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation -> {
+            String path = violation.getPropertyPath().toString();
+            String parameterName = path.substring(path.lastIndexOf('.') + 1);
+            errors.computeIfAbsent(parameterName, name -> new ArrayList<>())
+                    .add(parameterName + ": " + violation.getMessage());
+        });
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message("Validation failed")
+                .errors(errors)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleGlobalException(Exception ex, WebRequest request) {
         log.error("Unexpected error: ", ex);
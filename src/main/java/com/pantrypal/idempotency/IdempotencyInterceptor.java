@@ -0,0 +1,77 @@
+package com.pantrypal.idempotency;
+
+import com.pantrypal.entity.User;
+import com.pantrypal.exception.ValidationException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Replays the stored response when an {@link Idempotent} handler is called again with an
+ * {@code Idempotency-Key} it has already completed, and otherwise claims the key for this
+ * request. {@link IdempotencyResponseAdvice} records the response; a handler that fails
+ * releases the key here so the client can retry with it. Keys are scoped to the user and
+ * requests without the header are not affected.
+ */
+@RequiredArgsConstructor
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String CLAIM_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".claim";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyStore store;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !handlerMethod.hasMethodAnnotation(Idempotent.class)) {
+            return true;
+        }
+        String key = request.getHeader(HEADER);
+        Long userId = currentUserId();
+        if (key == null || userId == null) {
+            return true;
+        }
+        key = key.trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyStore.Claim claim = new IdempotencyStore.Claim(userId, key, request.getMethod() + " " + request.getRequestURI());
+        IdempotencyStore.Replay replay = store.begin(claim);
+        if (replay == null) {
+            request.setAttribute(CLAIM_ATTRIBUTE, claim);
+            return true;
+        }
+
+        response.setStatus(replay.statusCode());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(replay.body().length);
+        response.getOutputStream().write(replay.body());
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Still set only if no successful response was recorded
+        if (request.getAttribute(CLAIM_ATTRIBUTE) instanceof IdempotencyStore.Claim claim) {
+            request.removeAttribute(CLAIM_ATTRIBUTE);
+            store.release(claim);
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.pantrypal.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.controller.InventoryController;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Records the successful response of a request that claimed an {@code Idempotency-Key}.
+ * Runs after the handler's transaction has committed, so a stored response always
+ * describes items that exist.
+ */
+@Slf4j
+@RestControllerAdvice(assignableTypes = InventoryController.class)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(Idempotent.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        if (!(httpRequest.getAttribute(IdempotencyInterceptor.CLAIM_ATTRIBUTE) instanceof IdempotencyStore.Claim claim)) {
+            return body;
+        }
+
+        int status = servletResponse.getServletResponse().getStatus();
+        if (!HttpStatus.valueOf(status).is2xxSuccessful()) {
+            return body;
+        }
+        try {
+            store.complete(claim, status, objectMapper.writeValueAsBytes(body));
+            httpRequest.removeAttribute(IdempotencyInterceptor.CLAIM_ATTRIBUTE);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The items are already committed; the key is released after the request, so a
+            // retry would run the handler again. Failing the response would not undo that.
+            log.warn("Could not record response for Idempotency-Key {}: {}", claim.key(), e.getMessage());
+        }
+        return body;
+    }
+}
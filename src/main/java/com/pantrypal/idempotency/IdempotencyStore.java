@@ -0,0 +1,202 @@
+package com.pantrypal.idempotency;
+
+import com.pantrypal.entity.IdempotencyRecord;
+import com.pantrypal.exception.ConflictException;
+import com.pantrypal.exception.ValidationException;
+import com.pantrypal.repository.IdempotencyRecordRepository;
+import com.pantrypal.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Remembers what each {@code Idempotency-Key} produced. The {@code idempotency_keys} table
+ * is the source of truth and is shared by all nodes; a key is claimed there with an insert
+ * before the handler runs, so two concurrent retries cannot both create items. Small
+ * responses are also kept in memory for {@code memoryTtlMs}, since retries usually arrive
+ * within seconds and then need no database round trip. The memory tier is only filled by
+ * keyed requests and is emptied as entries expire, so it costs nothing when idle.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMs;
+    private final long memoryTtlMs;
+    private final int memoryMaxEntries;
+    private final int memoryMaxBodyBytes;
+    private final long abandonAfterMs;
+
+    private volatile Map<String, Replay> recent = new ConcurrentHashMap<>();
+
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong memoryReplays = new AtomicLong();
+    private final AtomicLong databaseReplays = new AtomicLong();
+    private final AtomicLong inProgressRejections = new AtomicLong();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.idempotency.ttl-ms:86400000}") long ttlMs,
+                            @Value("${app.idempotency.memory-ttl-ms:600000}") long memoryTtlMs,
+                            @Value("${app.idempotency.memory-max-entries:10000}") int memoryMaxEntries,
+                            @Value("${app.idempotency.memory-max-body-bytes:16384}") int memoryMaxBodyBytes,
+                            @Value("${app.idempotency.abandon-after-ms:60000}") long abandonAfterMs) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMs = ttlMs;
+        this.memoryTtlMs = Math.min(memoryTtlMs, ttlMs);
+        this.memoryMaxEntries = memoryMaxEntries;
+        this.memoryMaxBodyBytes = memoryMaxBodyBytes;
+        this.abandonAfterMs = abandonAfterMs;
+    }
+
+    /**
+     * Returns the stored response for a key that has already completed, or {@code null}
+     * after claiming the key for this request, which must then {@link #complete} or
+     * {@link #release} it.
+     */
+    public Replay begin(Claim claim) {
+        Replay cached = recent.get(claim.cacheKey());
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            checkEndpoint(claim, cached.endpoint());
+            memoryReplays.incrementAndGet();
+            return cached;
+        }
+        return onDirectory(() -> transactionTemplate.execute(status -> claimOrLoad(claim)));
+    }
+
+    public void complete(Claim claim, int statusCode, byte[] body) {
+        onDirectory(() -> transactionTemplate.execute(status ->
+                repository.complete(claim.userId(), claim.key(), statusCode, new String(body, StandardCharsets.UTF_8))));
+        remember(claim, new Replay(claim.endpoint(), statusCode, body, System.currentTimeMillis() + memoryTtlMs));
+    }
+
+    /**
+     * Gives the key back after the handler failed, so the client can retry with it.
+     */
+    public void release(Claim claim) {
+        onDirectory(() -> transactionTemplate.execute(status -> repository.release(claim.userId(), claim.key())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.memory-ttl-ms:600000}",
+            initialDelayString = "${app.idempotency.memory-ttl-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        recent.values().removeIf(replay -> replay.expiresAt() <= now);
+        if (recent.isEmpty()) {
+            // A ConcurrentHashMap never shrinks its table; start over so an idle node holds
+            // nothing. A put racing this swap only loses its memory copy, not the record.
+            recent = new ConcurrentHashMap<>();
+        }
+    }
+
+    private Replay claimOrLoad(Claim claim) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(ttlMs * 1_000_000);
+        if (repository.insertIfAbsent(claim.userId(), claim.key(), claim.endpoint(), now, expiresAt) == 1) {
+            claims.incrementAndGet();
+            return null;
+        }
+
+        IdempotencyRecord record = repository.findByUserIdAndKey(claim.userId(), claim.key()).orElse(null);
+        if (record == null) {
+            // Purged between the insert and the read
+            if (repository.insertIfAbsent(claim.userId(), claim.key(), claim.endpoint(), now, expiresAt) != 1) {
+                throw inProgress();
+            }
+            claims.incrementAndGet();
+            return null;
+        }
+        if (repository.reclaim(record.getId(), claim.endpoint(), now, expiresAt,
+                now.minusNanos(abandonAfterMs * 1_000_000)) == 1) {
+            // Expired, or left behind by a request that died before completing it
+            claims.incrementAndGet();
+            return null;
+        }
+
+        checkEndpoint(claim, record.getEndpoint());
+        if (record.getStatusCode() == null) {
+            throw inProgress();
+        }
+
+        Replay replay = new Replay(record.getEndpoint(), record.getStatusCode(),
+                record.getResponseBody().getBytes(StandardCharsets.UTF_8), System.currentTimeMillis() + memoryTtlMs);
+        remember(claim, replay);
+        databaseReplays.incrementAndGet();
+        return replay;
+    }
+
+    private void remember(Claim claim, Replay replay) {
+        if (replay.body().length > memoryMaxBodyBytes) {
+            return;
+        }
+        if (recent.size() >= memoryMaxEntries) {
+            evictExpired();
+            if (recent.size() >= memoryMaxEntries) {
+                return;
+            }
+        }
+        recent.put(claim.cacheKey(), replay);
+    }
+
+    private ConflictException inProgress() {
+        inProgressRejections.incrementAndGet();
+        return new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private static void checkEndpoint(Claim claim, String endpoint) {
+        if (!claim.endpoint().equals(endpoint)) {
+            throw new ValidationException("Idempotency-Key was already used for " + endpoint);
+        }
+    }
+
+    // The table lives in the directory database even while a request is pinned to a shard
+    private static <T> T onDirectory(Supplier<T> action) {
+        return ShardContext.callOn(null, action);
+    }
+
+    public long getClaimCount() {
+        return claims.get();
+    }
+
+    public long getMemoryReplayCount() {
+        return memoryReplays.get();
+    }
+
+    public long getDatabaseReplayCount() {
+        return databaseReplays.get();
+    }
+
+    public long getInProgressRejectionCount() {
+        return inProgressRejections.get();
+    }
+
+    public int getMemoryEntryCount() {
+        return recent.size();
+    }
+
+    public record Claim(Long userId, String key, String endpoint) {
+        String cacheKey() {
+            return userId + ":" + key;
+        }
+    }
+
+    public record Replay(String endpoint, int statusCode, byte[] body, long expiresAt) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.pantrypal.monitoring;
+
+import com.pantrypal.sharding.ShardContext;
+import com.pantrypal.sharding.ShardRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports how each index in the application schema has been used since the server started,
+ * from MySQL's performance_schema. Rows with a null index are reads that scanned the table;
+ * indexes with no reads are candidates to drop in the next migration. With sharding enabled
+ * every shard is reported next to the directory database. Exposed over HTTP on the
+ * management port as {@code /actuator/indexes}.
+ */
+@Component
+@Endpoint(id = "indexes")
+public class IndexUsageEndpoint {
+
+    private static final String USAGE_SQL = """
+            SELECT object_name AS table_name, index_name, count_read, count_fetch,
+                   count_insert + count_update + count_delete AS count_write,
+                   ROUND(sum_timer_wait / 1000000000, 1) AS wait_ms
+            FROM performance_schema.table_io_waits_summary_by_index_usage
+            WHERE object_schema = DATABASE()
+            ORDER BY object_name, count_read DESC
+            """;
+
+    private static final String UNUSED_SQL = """
+            SELECT object_name AS table_name, index_name
+            FROM sys.schema_unused_indexes
+            WHERE object_schema = DATABASE()
+            ORDER BY object_name, index_name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardRoutingDataSource> shardRouter;
+
+    public IndexUsageEndpoint(DataSource dataSource, ObjectProvider<ShardRoutingDataSource> shardRouter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.shardRouter = shardRouter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("directory", report());
+        shardRouter.ifAvailable(router -> router.getShards().keySet()
+                .forEach(shardId -> report.put(shardId, ShardContext.callOn(shardId, this::report))));
+        return report;
+    }
+
+    private Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        try {
+            report.put("usage", jdbcTemplate.queryForList(USAGE_SQL));
+            report.put("unused", jdbcTemplate.queryForList(UNUSED_SQL));
+        } catch (DataAccessException e) {
+            // H2, or a MySQL account without access to performance_schema and sys
+            report.put("usage", List.of());
+            report.put("error", e.getMostSpecificCause().getMessage());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,63 @@
+package com.pantrypal.monitoring;
+
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets a repeated log line through at most once per interval per key and counts what it
+ * held back, so a client replaying a bad token cannot flood the logs. Keys are meant to
+ * be a small fixed set of categories, not per-request values.
+ */
+public final class LogThrottle {
+
+    /**
+     * Shared by JwtService and JwtUtils: both validate the same incoming tokens, so a bad
+     * token rejected by each must still count against one allowance per reason.
+     */
+    public static final LogThrottle REJECTED_TOKENS = new LogThrottle(10_000);
+
+    private final long intervalNanos;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public LogThrottle(long intervalMs) {
+        this.intervalNanos = intervalMs * 1_000_000L;
+    }
+
+    /**
+     * @return -1 if this occurrence should not be logged, otherwise how many occurrences
+     *         were suppressed since the last one that was
+     */
+    public long acquire(String key) {
+        State state = states.computeIfAbsent(key, k -> new State());
+        long now = System.nanoTime();
+        long last = state.lastLoggedNanos.get();
+        if (last != 0 && now - last < intervalNanos) {
+            state.suppressed.incrementAndGet();
+            return -1;
+        }
+        if (!state.lastLoggedNanos.compareAndSet(last, now)) {
+            state.suppressed.incrementAndGet();
+            return -1;
+        }
+        return state.suppressed.getAndSet(0);
+    }
+
+    /**
+     * Log {@code message} at WARN unless {@code key} was logged within the interval,
+     * noting how many occurrences were held back since the last one.
+     */
+    public void warnThrottled(Logger log, String key, String message) {
+        long suppressed = acquire(key);
+        if (suppressed >= 0) {
+            log.warn("{} [{} similar suppressed]", message, suppressed);
+        }
+    }
+
+    private static class State {
+        private final AtomicLong lastLoggedNanos = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
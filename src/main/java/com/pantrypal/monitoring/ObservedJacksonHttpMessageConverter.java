@@ -0,0 +1,34 @@
+package com.pantrypal.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The standard Jackson converter with response serialization wrapped in an observation,
+ * so the time spent writing JSON shows up as its own span and timer.
+ */
+public class ObservedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedJacksonHttpMessageConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        super(objectMapper);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Observation.createNotStarted("http.response.serialization", observationRegistry)
+                .contextualName("json-serialize")
+                .observeChecked(() -> super.writeInternal(object, type, outputMessage));
+    }
+}
@@ -0,0 +1,68 @@
+package com.pantrypal.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements issued by the current request thread. Opened and closed by
+ * {@link SqlMetricsFilter}; statements outside a request (scheduled jobs, mail
+ * workers) are not tracked per request.
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    // Enough to spot repeats without letting a pathological request grow the map unbounded
+    private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+    private int statements;
+    private long jdbcMillis;
+    private int slowStatements;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    static RequestSqlStats open() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long elapsedMillis, boolean slow) {
+        statements++;
+        jdbcMillis += elapsedMillis;
+        if (slow) {
+            slowStatements++;
+        }
+        if (executionsBySql.size() < MAX_DISTINCT_STATEMENTS || executionsBySql.containsKey(sql)) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcMillis;
+    }
+
+    public int getSlowStatements() {
+        return slowStatements;
+    }
+
+    /**
+     * The statement executed most often in this request, with its count, or null if none ran.
+     */
+    Map.Entry<String, Integer> mostRepeated() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
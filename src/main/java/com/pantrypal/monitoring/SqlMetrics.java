@@ -0,0 +1,62 @@
+package com.pantrypal.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-request SQL totals published as meters tagged with the controller method
+ * ({@code Controller#method}) that handled the request.
+ */
+public class SqlMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, HandlerMeters> byHandler = new ConcurrentHashMap<>();
+
+    public SqlMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void record(String handler, RequestSqlStats stats, boolean nPlusOne) {
+        HandlerMeters meters = byHandler.computeIfAbsent(handler, this::createMeters);
+        meters.statements.record(stats.getStatements());
+        meters.jdbcTime.record(Duration.ofMillis(stats.getJdbcMillis()));
+        if (stats.getSlowStatements() > 0) {
+            meters.slowStatements.increment(stats.getSlowStatements());
+        }
+        if (nPlusOne) {
+            meters.nPlusOne.increment();
+        }
+    }
+
+    private HandlerMeters createMeters(String handler) {
+        return new HandlerMeters(
+                DistributionSummary.builder("sql.request.statements")
+                        .description("SQL statements executed per request")
+                        .tag("handler", handler)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry),
+                Timer.builder("sql.request.jdbc.time")
+                        .description("Total JDBC execution time per request")
+                        .tag("handler", handler)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                Counter.builder("sql.request.slow.statements")
+                        .description("Statements above the slow-statement threshold")
+                        .tag("handler", handler)
+                        .register(registry),
+                Counter.builder("sql.request.n.plus.one")
+                        .description("Requests that repeated one statement past the N+1 threshold")
+                        .tag("handler", handler)
+                        .register(registry));
+    }
+
+    private record HandlerMeters(DistributionSummary statements, Timer jdbcTime,
+                                 Counter slowStatements, Counter nPlusOne) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.pantrypal.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Opens a {@link RequestSqlStats} scope around the whole request, including the security
+ * filters, and afterwards attributes the statements to the controller method that handled
+ * it. A request that runs the same statement at least {@code nPlusOneThreshold} times is
+ * logged as a likely N+1.
+ */
+@Slf4j
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "unmapped";
+
+    private final SqlMetrics sqlMetrics;
+    private final int nPlusOneThreshold;
+
+    public SqlMetricsFilter(SqlMetrics sqlMetrics, int nPlusOneThreshold) {
+        this.sqlMetrics = sqlMetrics;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        RequestSqlStats stats = RequestSqlStats.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.close();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        String handler = handlerName(request);
+
+        boolean nPlusOne = false;
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= nPlusOneThreshold) {
+            nPlusOne = true;
+            log.warn("Possible N+1 in {}: same statement executed {} times: {}",
+                    handler, repeated.getValue(), SqlStatementListener.truncate(repeated.getKey()));
+        }
+
+        sqlMetrics.record(handler, stats, nPlusOne);
+        if (log.isDebugEnabled() && stats.getStatements() > 0) {
+            log.debug("{} {} -> {}: {} statements, {} ms JDBC", request.getMethod(), request.getRequestURI(),
+                    handler, stats.getStatements(), stats.getJdbcMillis());
+        }
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return UNMAPPED;
+    }
+}
@@ -0,0 +1,64 @@
+package com.pantrypal.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every JDBC execution against the current request's {@link RequestSqlStats}
+ * and logs statements slower than the threshold. A JDBC batch counts as one statement,
+ * since it is one round-trip.
+ */
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;
+
+    private final long slowStatementMs;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong slowStatements = new AtomicLong();
+
+    public SqlStatementListener(long slowStatementMs) {
+        this.slowStatementMs = slowStatementMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        statements.incrementAndGet();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        long elapsedMs = execInfo.getElapsedTime();
+        boolean slow = elapsedMs >= slowStatementMs;
+
+        if (slow) {
+            slowStatements.incrementAndGet();
+            log.warn("Slow SQL ({} ms{}): {}", elapsedMs,
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "", truncate(sql));
+        }
+
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.record(sql, elapsedMs, slow);
+        }
+    }
+
+    static String truncate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    public long getStatementCount() {
+        return statements.get();
+    }
+
+    public long getSlowStatementCount() {
+        return slowStatements.get();
+    }
+}
@@ -0,0 +1,77 @@
+package com.pantrypal.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local {@link RateLimitBackend}. Counters are split across stripes by key hash and
+ * each stripe sweeps its own expired windows at most once per {@code sweepIntervalMs},
+ * so cleanup never walks the whole table while requests wait.
+ */
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final Stripe[] stripes;
+    private final long sweepIntervalMs;
+
+    public InMemoryRateLimitBackend(int stripeCount, long sweepIntervalMs) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @Override
+    public long increment(String key, long windowStartMs, long retainMs) {
+        Stripe stripe = stripeFor(key);
+        long now = System.currentTimeMillis();
+        stripe.sweepIfDue(now, sweepIntervalMs);
+        return stripe.counters
+                .computeIfAbsent(windowKey(key, windowStartMs), k -> new Counter(windowStartMs + retainMs))
+                .count.incrementAndGet();
+    }
+
+    @Override
+    public long get(String key, long windowStartMs) {
+        Counter counter = stripeFor(key).counters.get(windowKey(key, windowStartMs));
+        return counter != null ? counter.count.get() : 0;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.counters.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private static String windowKey(String key, long windowStartMs) {
+        return key + "@" + windowStartMs;
+    }
+
+    private static class Stripe {
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+        private final AtomicLong lastSweepMs = new AtomicLong(System.currentTimeMillis());
+
+        void sweepIfDue(long now, long sweepIntervalMs) {
+            long last = lastSweepMs.get();
+            if (now - last >= sweepIntervalMs && lastSweepMs.compareAndSet(last, now)) {
+                counters.values().removeIf(counter -> counter.expiresAtMs <= now);
+            }
+        }
+    }
+
+    private static class Counter {
+        private final AtomicLong count = new AtomicLong();
+        private final long expiresAtMs;
+
+        Counter(long expiresAtMs) {
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.pantrypal.ratelimit;
+
+/**
+ * Storage for fixed-window request counters. The in-memory implementation limits each
+ * node on its own; a shared implementation (e.g. Redis INCR with an expiry) makes the
+ * limits cluster-wide without changing the limiters built on top.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Add one request to the counter for {@code key} in the window starting at
+     * {@code windowStartMs} and return the new count. The counter may be discarded
+     * once {@code retainMs} has passed since the window started.
+     */
+    long increment(String key, long windowStartMs, long retainMs);
+
+    /**
+     * Current count for {@code key} in the window starting at {@code windowStartMs}, or 0.
+     */
+    long get(String key, long windowStartMs);
+}
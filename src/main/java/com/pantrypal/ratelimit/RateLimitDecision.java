@@ -0,0 +1,16 @@
+package com.pantrypal.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one limiter check, carrying the values for the {@code RateLimit-*} headers.
+ */
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+    private final boolean allowed;
+    private final long limit;
+    private final long remaining;
+    private final long resetSeconds;
+}
@@ -0,0 +1,55 @@
+package com.pantrypal.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A token bucket updated with compare-and-set on an immutable state, so concurrent
+ * requests for the same key never block each other. Tokens refill continuously at
+ * {@code refillPerSecond} up to {@code capacity}.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if the token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refilled(current, nowNanos);
+            if (tokens < 1d) {
+                return (long) Math.ceil((1d - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1d, Math.max(nowNanos, current.updatedAtNanos)))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket would be full by now, i.e. it is indistinguishable from a new one
+     * and can be dropped without letting anyone through sooner.
+     */
+    public boolean isFull(long nowNanos) {
+        return refilled(state.get(), nowNanos) >= capacity;
+    }
+
+    private double refilled(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.updatedAtNanos);
+        return Math.min(capacity, current.tokens + elapsed * refillPerNano);
+    }
+
+    private record State(double tokens, long updatedAtNanos) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.pantrypal.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@link TokenBucket} per key, capped at {@code maxKeys}. When the map is full, buckets
+ * that have refilled completely are dropped first; if that is not enough an arbitrary tenth
+ * goes, so memory stays bounded even when an attacker rotates keys.
+ */
+public class TokenBucketLimiter {
+
+    private final String name;
+    private final long capacity;
+    private final double refillPerSecond;
+    private final int maxKeys;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TokenBucketLimiter(String name, long capacity, double refillPerSecond, int maxKeys) {
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the key has a token again
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+        }
+
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            allowed.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+        }
+        return waitNanos;
+    }
+
+    private void evict(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+        Iterator<String> keys = buckets.keySet().iterator();
+        int toRemove = buckets.size() - (maxKeys - maxKeys / 10);
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        evictions.addAndGet(Math.max(0, before - buckets.size()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getAllowedCount() {
+        return allowed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.pantrypal.ratelimit;
+
+/**
+ * Counts requests per key on top of a {@link RateLimitBackend}.
+ * A sliding limiter estimates the last {@code windowMs} as the current fixed window plus
+ * the previous one weighted by how much of it still overlaps, which avoids the burst
+ * at window boundaries without storing individual timestamps. A fixed limiter is a plain
+ * per-window quota, e.g. one per UTC day.
+ */
+public class WindowRateLimiter {
+
+    private final String name;
+    private final RateLimitBackend backend;
+    private final long limit;
+    private final long windowMs;
+    private final boolean sliding;
+
+    private WindowRateLimiter(String name, RateLimitBackend backend, long limit, long windowMs, boolean sliding) {
+        this.name = name;
+        this.backend = backend;
+        this.limit = limit;
+        this.windowMs = windowMs;
+        this.sliding = sliding;
+    }
+
+    public static WindowRateLimiter sliding(String name, RateLimitBackend backend, long limit, long windowMs) {
+        return new WindowRateLimiter(name, backend, limit, windowMs, true);
+    }
+
+    public static WindowRateLimiter fixed(String name, RateLimitBackend backend, long limit, long windowMs) {
+        return new WindowRateLimiter(name, backend, limit, windowMs, false);
+    }
+
+    /**
+     * Count this request and decide whether it is within the limit. Rejected requests are
+     * counted too, so a client retrying in a tight loop stays limited until it backs off.
+     */
+    public RateLimitDecision tryAcquire(String key, long nowMs) {
+        String counterKey = name + ":" + key;
+        long windowStart = nowMs - Math.floorMod(nowMs, windowMs);
+        long current = backend.increment(counterKey, windowStart, sliding ? 2 * windowMs : windowMs);
+        long resetMs = windowStart + windowMs - nowMs;
+
+        double used = current;
+        if (sliding) {
+            double previousWeight = 1d - (double) (nowMs - windowStart) / windowMs;
+            used += backend.get(counterKey, windowStart - windowMs) * previousWeight;
+        }
+
+        long remaining = Math.max(0, limit - (long) Math.ceil(used));
+        return new RateLimitDecision(used <= limit, limit, remaining, Math.max(1, (resetMs + 999) / 1000));
+    }
+
+    public String getName() {
+        return name;
+    }
+}
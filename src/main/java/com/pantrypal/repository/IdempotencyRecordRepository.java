@@ -0,0 +1,47 @@
+package com.pantrypal.repository;
+
+import com.pantrypal.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :key")
+    Optional<IdempotencyRecord> findByUserIdAndKey(@Param("userId") Long userId, @Param("key") String key);
+
+    // The unique key decides which of two concurrent requests with the same key runs
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (user_id, idempotency_key, endpoint, created_at, expires_at) " +
+            "VALUES (:userId, :key, :endpoint, :now, :expiresAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("key") String key, @Param("endpoint") String endpoint,
+                       @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Reclaims a key whose record has expired, or whose claim was left behind by a request that died
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.endpoint = :endpoint, r.statusCode = null, r.responseBody = null, " +
+            "r.createdAt = :now, r.expiresAt = :expiresAt " +
+            "WHERE r.id = :id AND (r.expiresAt <= :now OR (r.statusCode IS NULL AND r.createdAt < :abandonedBefore))")
+    int reclaim(@Param("id") Long id, @Param("endpoint") String endpoint, @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt, @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :body " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int complete(@Param("userId") Long userId, @Param("key") String key,
+                 @Param("statusCode") int statusCode, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int release(@Param("userId") Long userId, @Param("key") String key);
+
+    // Bounded delete so the purge job never holds locks on a large range
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :date LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("date") LocalDateTime date, @Param("limit") int limit);
+}
@@ -4,9 +4,12 @@ import com.pantrypal.entity.InventoryItem;
 import com.pantrypal.entity.enums.Category;
 import com.pantrypal.entity.enums.Status;
 import com.pantrypal.entity.enums.Frequency;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,14 +21,30 @@ import java.util.UUID;
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
 
+    // Explicit queries on i.user.id compare the user_id column directly. Derived findByUserId*
+    // methods join users, which does not exist on an inventory shard.
+
     // Find items by user with pagination
-    Page<InventoryItem> findByUserId(Long userId, Pageable pageable);
-    List<InventoryItem> findByUserId(Long userId);
+    @Query(value = "SELECT i FROM InventoryItem i WHERE i.user.id = :userId",
+            countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.user.id = :userId")
+    Page<InventoryItem> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId")
+    List<InventoryItem> findByUserId(@Param("userId") Long userId);
+
     // Find items by user and filters
-    List<InventoryItem> findByUserIdAndCategory(Long userId, Category category);
-    List<InventoryItem> findByUserIdAndStatus(Long userId, Status status);
-    List<InventoryItem> findByUserIdAndFrequency(Long userId, Frequency frequency);
-    List<InventoryItem> findByUserIdAndCategoryAndStatus(Long userId, Category category, Status status);
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND i.category = :category")
+    List<InventoryItem> findByUserIdAndCategory(@Param("userId") Long userId, @Param("category") Category category);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND i.status = :status")
+    List<InventoryItem> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Status status);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND i.frequency = :frequency")
+    List<InventoryItem> findByUserIdAndFrequency(@Param("userId") Long userId, @Param("frequency") Frequency frequency);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND i.category = :category AND i.status = :status")
+    List<InventoryItem> findByUserIdAndCategoryAndStatus(@Param("userId") Long userId, @Param("category") Category category,
+                                                        @Param("status") Status status);
 
     // Search by name
     @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND " +
@@ -96,14 +115,29 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     List<Object[]> findFrequencyReport(@Param("userId") Long userId);
 
     // Bulk operations
-    void deleteByUserIdAndIdIn(Long userId, List<Long> ids);
+    @Modifying
+    @Query("DELETE FROM InventoryItem i WHERE i.user.id = :userId AND i.id IN :ids")
+    void deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
 
-    boolean existsByUserIdAndId(Long userId, Long id);
+    @Query("SELECT COUNT(i) > 0 FROM InventoryItem i WHERE i.user.id = :userId AND i.id = :id")
+    boolean existsByUserIdAndId(@Param("userId") Long userId, @Param("id") Long id);
 
     @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.user.id = :userId AND i.id IN :ids")
     Long countByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
 
-    Page<InventoryItem> findByUserIdAndNameContainingIgnoreCase(Long userId, String search, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId AND i.id IN :ids")
+    List<InventoryItem> findByUserIdAndIdInForUpdate(@Param("userId") Long userId, @Param("ids") List<Long> ids);
 
-    List<InventoryItem> findByUserIdAndCategoryAndStatusAndFrequency(Long userId, Category valueOf, Status valueOf1, Frequency valueOf2);
+    @Query(value = "SELECT i FROM InventoryItem i WHERE i.user.id = :userId " +
+            "AND LOWER(i.name) LIKE LOWER(CONCAT('%', :search, '%'))",
+            countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.user.id = :userId " +
+                    "AND LOWER(i.name) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<InventoryItem> findByUserIdAndNameContainingIgnoreCase(@Param("userId") Long userId, @Param("search") String search,
+                                                               Pageable pageable);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.user.id = :userId " +
+            "AND i.category = :category AND i.status = :status AND i.frequency = :frequency")
+    List<InventoryItem> findByUserIdAndCategoryAndStatusAndFrequency(@Param("userId") Long userId, @Param("category") Category category,
+                                                                    @Param("status") Status status, @Param("frequency") Frequency frequency);
 }
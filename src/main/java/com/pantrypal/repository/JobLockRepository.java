@@ -0,0 +1,28 @@
+package com.pantrypal.repository;
+
+import com.pantrypal.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until, l.lockedBy = :owner " +
+            "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :owner)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_locks (name, locked_until, locked_by) VALUES (:name, :until, :owner)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -18,6 +18,11 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Query("DELETE FROM PasswordResetToken p WHERE p.expiryDate < :date OR p.used = true")
     void deleteExpiredTokens(@Param("date") LocalDateTime date);
 
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE expiry_date < :date OR used = true LIMIT :limit",
+            nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("date") LocalDateTime date, @Param("limit") int limit);
+
     @Modifying
     @Query("UPDATE PasswordResetToken p SET p.used = true WHERE p.token = :token")
     void markAsUsed(@Param("token") String token);
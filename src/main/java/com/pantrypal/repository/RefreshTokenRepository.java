@@ -1,23 +1,60 @@
 package com.pantrypal.repository;
 
 import com.pantrypal.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = "user")
     Optional<RefreshToken> findByToken(String token);
 
+    // Re-use the device's token row instead of delete + insert
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.token = :token, r.expiryDate = :expiryDate, r.revoked = false, " +
+            "r.deviceName = :deviceName, r.lastUsedAt = :now " +
+            "WHERE r.user.id = :userId AND r.deviceId = :deviceId")
+    int replaceTokenForDevice(@Param("userId") Long userId, @Param("deviceId") String deviceId,
+                              @Param("deviceName") String deviceName, @Param("token") String token,
+                              @Param("expiryDate") LocalDateTime expiryDate, @Param("now") LocalDateTime now);
+
+    // Compare-and-swap: fails if the token was already rotated, revoked or has expired
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.token = :newToken, r.expiryDate = :expiryDate, r.lastUsedAt = :now " +
+            "WHERE r.token = :oldToken AND r.revoked = false AND r.expiryDate > :now")
+    int rotateToken(@Param("oldToken") String oldToken, @Param("newToken") String newToken,
+                    @Param("expiryDate") LocalDateTime expiryDate, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r FROM RefreshToken r WHERE r.user.id = :userId AND r.revoked = false " +
+            "AND r.expiryDate > :now ORDER BY r.lastUsedAt DESC")
+    List<RefreshToken> findActiveByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.user.id = :userId AND r.deviceId = :deviceId")
+    int revokeByUserIdAndDeviceId(@Param("userId") Long userId, @Param("deviceId") String deviceId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.token = :token")
+    int revokeToken(@Param("token") String token);
+
     @Modifying
     @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :date OR r.revoked = true")
     void deleteExpiredTokens(@Param("date") LocalDateTime date);
 
+    // Bounded delete so the purge job never holds locks on a large range
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE expiry_date < :date OR revoked = true LIMIT :limit",
+            nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("date") LocalDateTime date, @Param("limit") int limit);
+
     @Modifying
     @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
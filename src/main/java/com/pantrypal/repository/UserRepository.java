@@ -1,10 +1,13 @@
 package com.pantrypal.repository;
 
 import com.pantrypal.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +18,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UsernameView> findUsernamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("password") String password);
+
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :userId AND u.enabled = true")
     boolean existsByIdAndEnabled(@Param("userId") Long userId);
+
+    interface UsernameView {
+        Long getId();
+        String getUsername();
+    }
 }
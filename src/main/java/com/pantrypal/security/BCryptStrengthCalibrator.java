@@ -0,0 +1,47 @@
+package com.pantrypal.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt work factor for this hardware: the highest strength whose hash
+ * still completes within the target latency, clamped to [min, max].
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-Passw0rd";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long elapsedMs = measure(strength);
+            log.debug("BCrypt strength {} took {} ms", strength, elapsedMs);
+            if (elapsedMs > targetMs) {
+                break;
+            }
+            chosen = strength;
+            // Each step doubles the cost, so stop once the next one would clearly overshoot
+            if (elapsedMs * 2 > targetMs) {
+                break;
+            }
+        }
+        log.info("BCrypt strength calibrated to {} for a {} ms target", chosen, targetMs);
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        // Best of two, so a one-off JIT or GC pause does not skew the result
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pantrypal.security;
 
 import com.pantrypal.entity.User;
+import com.pantrypal.monitoring.LogThrottle;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -130,16 +131,16 @@ public class JwtUtils {
                     .parseClaimsJws(token)
                     .getBody();
         } catch (ExpiredJwtException e) {
-            log.warn("JWT token is expired: {}", e.getMessage());
+            log.debug("JWT token is expired: {}", e.getMessage());
             throw e;
         } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            logRejectedToken(e);
             throw new MalformedJwtException("Invalid JWT token");
         } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
+            logRejectedToken(e);
             throw new UnsupportedJwtException("Unsupported JWT token");
         } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
+            logRejectedToken(e);
             throw new IllegalArgumentException("JWT claims string is empty");
         }
     }
@@ -170,20 +171,19 @@ public class JwtUtils {
                     .build()
                     .parseClaimsJws(token);
             return true;
-        } catch (SignatureException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
+            log.debug("JWT token is expired: {}", e.getMessage());
+        } catch (SignatureException | MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            logRejectedToken(e);
         }
         return false;
     }
 
+    private void logRejectedToken(Exception e) {
+        String reason = e.getClass().getSimpleName();
+        LogThrottle.REJECTED_TOKENS.warnThrottled(log, reason, "Rejected JWT (" + reason + "): " + e.getMessage());
+    }
+
     /**
      * Get expiration time in milliseconds
      */
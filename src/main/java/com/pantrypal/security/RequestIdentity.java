@@ -0,0 +1,38 @@
+package com.pantrypal.security;
+
+import com.pantrypal.entity.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * The user already loaded for the current HTTP request, so later steps of the same
+ * request (authentication, password upgrade, token issuing) reuse it instead of querying
+ * {@code users} again. Outside a request every call is a no-op.
+ */
+@Component
+public class RequestIdentity {
+
+    private static final String ATTRIBUTE = RequestIdentity.class.getName() + ".USER";
+
+    public void set(User user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public Optional<User> get() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((User) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return get().filter(user -> user.getEmail().equalsIgnoreCase(email));
+    }
+}
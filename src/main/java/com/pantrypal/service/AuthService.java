@@ -1,17 +1,20 @@
 package com.pantrypal.service;
 
 
+import com.pantrypal.datasource.ReadWriteRoutingDataSource;
 import com.pantrypal.dto.request.*;
 import com.pantrypal.dto.response.AuthResponse;
 import com.pantrypal.dto.response.UserResponse;
+import com.pantrypal.dto.response.UsernameAvailabilityResponse;
 import com.pantrypal.entity.User;
-import com.pantrypal.entity.RefreshToken;
 import com.pantrypal.exception.*;
 import com.pantrypal.repository.UserRepository;
 import com.pantrypal.repository.RefreshTokenRepository;
 import com.pantrypal.security.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,7 +23,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -34,55 +40,89 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
-    private final EmailService emailService;
-
-    @Transactional
+    private final OutboxService outboxService;
+    private final UsernameBloomFilter usernameBloomFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Registers with a single INSERT and lets the unique constraints on email and username
+     * reject duplicates. The password is hashed before the transaction starts, so BCrypt
+     * never holds a pooled connection.
+     */
     public AuthResponse register(RegisterRequest request) {
-        log.info("Registering new user: {}", request.getEmail());
+        log.debug("Registering new user: {}", request.getEmail());
 
-        // Validate email uniqueness
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new ValidationException("Email already registered");
-        }
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
 
-        // Validate username uniqueness
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new ValidationException("Username already taken");
+        AuthResponse response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                User user = userRepository.saveAndFlush(User.builder()
+                        .username(request.getUsername())
+                        .email(request.getEmail())
+                        .password(encodedPassword)
+                        .enabled(true)
+                        .build());
+                log.info("User registered successfully: {}", user.getId());
+
+                // Generate tokens
+                String token = jwtUtils.generateToken(user);
+                String refreshToken = refreshTokenService.createRefreshToken(
+                        user, request.getDeviceId(), request.getDeviceName());
+
+                // Queue welcome email; it is only sent if this transaction commits
+                outboxService.publish(EmailOutboxHandler.WELCOME_EMAIL, Map.of(
+                        "email", user.getEmail(),
+                        "username", user.getUsername()));
+
+                return buildAuthResponse(user, token, refreshToken);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUserException(e);
         }
 
-        // Create user
-        User user = User.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .enabled(true)
-                .build();
-
-        user = userRepository.save(user);
-        log.info("User registered successfully: {}", user.getId());
+        usernameBloomFilter.add(request.getUsername());
+        return response;
+    }
 
-        // Generate tokens
-        String token = jwtUtils.generateToken(user);
-        String refreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
+    public UsernameAvailabilityResponse checkUsernameAvailability(String username) {
+        boolean available = !usernameBloomFilter.mightContain(username)
+                || !userRepository.existsByUsername(username);
+        return UsernameAvailabilityResponse.builder()
+                .username(username)
+                .available(available)
+                .build();
+    }
 
-        // Send welcome email (async)
-        emailService.sendWelcomeEmail(user.getEmail(), user.getUsername());
+    private RuntimeException duplicateUserException(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : String.valueOf(e.getMostSpecificCause().getMessage());
+        constraint = constraint.toLowerCase(Locale.ROOT);
 
-        return buildAuthResponse(user, token, refreshToken);
+        if (constraint.contains(User.UK_EMAIL)) {
+            return new ValidationException("Email already registered", e);
+        }
+        if (constraint.contains(User.UK_USERNAME)) {
+            return new ValidationException("Username already taken", e);
+        }
+        return e;
     }
 
-    @Transactional
+    // Not transactional: password verification must not hold a pooled connection
     public AuthResponse login(LoginRequest request) {
-        log.info("Login attempt for email: {}", request.getEmail());
+        log.debug("Login attempt for email: {}", request.getEmail());
 
         try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
+            // Authenticate user against the primary: a password reset moments ago may not be on the replica yet
+            Authentication authentication = ReadWriteRoutingDataSource.usePrimary(() ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.getEmail(),
+                                    request.getPassword()
+                            )
+                    ));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -91,7 +131,8 @@ public class AuthService {
 
             // Generate tokens
             String token = jwtUtils.generateToken(user);
-            String refreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
+            String refreshToken = refreshTokenService.createRefreshToken(
+                    user, request.getDeviceId(), request.getDeviceName());
 
             log.info("User logged in successfully: {}", user.getId());
             return buildAuthResponse(user, token, refreshToken);
@@ -103,32 +144,39 @@ public class AuthService {
 
     @Transactional
     public void logout(String refreshToken) {
-        log.info("Logging out user with refresh token");
+        log.debug("Logging out user with refresh token");
         refreshTokenService.revokeRefreshToken(refreshToken);
         SecurityContextHolder.clearContext();
     }
 
     @Transactional
     public AuthResponse refreshToken(String refreshToken) {
-        log.info("Refreshing token");
+        log.debug("Refreshing token");
 
-        RefreshToken token = refreshTokenService.findByToken(refreshToken);
+        SessionRegistry.Session session = refreshTokenService.findSession(refreshToken);
 
-        if (token.isRevoked() || token.getExpiryDate().isBefore(LocalDateTime.now())) {
+        if (session.isRevoked() || session.getExpiryDate().isBefore(LocalDateTime.now())) {
             throw new UnauthorizedException("Refresh token is expired or revoked");
         }
 
-        User user = token.getUser();
+        String newRefreshToken = refreshTokenService.rotateRefreshToken(session);
+
+        // Built from the session so a refresh does not need to load the user
+        User user = User.builder()
+                .id(session.getUserId())
+                .username(session.getUsername())
+                .email(session.getEmail())
+                .createdAt(session.getUserCreatedAt())
+                .build();
         String newAccessToken = jwtUtils.generateToken(user);
-        String newRefreshToken = refreshTokenService.rotateRefreshToken(token).getToken();
 
-        log.info("Token refreshed for user: {}", user.getId());
+        log.debug("Token refreshed for user: {}", user.getId());
         return buildAuthResponse(user, newAccessToken, newRefreshToken);
     }
 
     @Transactional
     public void forgotPassword(ForgotPasswordRequest request) {
-        log.info("Processing forgot password for email: {}", request.getEmail());
+        log.debug("Processing forgot password for email: {}", request.getEmail());
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("Email not found"));
@@ -137,15 +185,17 @@ public class AuthService {
         String resetToken = UUID.randomUUID().toString();
         // Save to database (implementation omitted for brevity)
 
-        // Send reset email
-        emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
+        // Queue reset email; it is only sent if this transaction commits
+        outboxService.publish(EmailOutboxHandler.PASSWORD_RESET_EMAIL, Map.of(
+                "email", user.getEmail(),
+                "token", resetToken));
 
-        log.info("Password reset email sent to: {}", request.getEmail());
+        log.info("Password reset email queued for: {}", request.getEmail());
     }
 
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
-        log.info("Processing password reset");
+        log.debug("Processing password reset");
 
         // Validate token and update password (implementation omitted for brevity)
         // This would involve finding the PasswordResetToken, checking expiry,
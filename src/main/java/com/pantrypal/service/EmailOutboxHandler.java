@@ -0,0 +1,57 @@
+package com.pantrypal.service;
+
+import com.pantrypal.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxHandler implements OutboxEventHandler {
+
+    public static final String WELCOME_EMAIL = "email.welcome";
+    public static final String PASSWORD_RESET_EMAIL = "email.password-reset";
+
+    private final EmailService emailService;
+    private final OutboxService outboxService;
+
+    @Override
+    public boolean supports(String eventType) {
+        return WELCOME_EMAIL.equals(eventType) || PASSWORD_RESET_EMAIL.equals(eventType);
+    }
+
+    @Override
+    public List<OutboxEvent> handle(List<OutboxEvent> events) {
+        List<OutboxEvent> failures = new ArrayList<>();
+        Map<OutboundEmail, OutboxEvent> emails = new IdentityHashMap<>(events.size());
+
+        for (OutboxEvent event : events) {
+            try {
+                emails.put(toEmail(event), event);
+            } catch (Exception e) {
+                log.error("Cannot build email for outbox event: {}", event.getId(), e);
+                failures.add(event);
+            }
+        }
+
+        for (OutboundEmail failed : emailService.deliver(new ArrayList<>(emails.keySet()))) {
+            failures.add(emails.get(failed));
+        }
+        return failures;
+    }
+
+    private OutboundEmail toEmail(OutboxEvent event) {
+        Map<String, String> payload = outboxService.readPayload(event);
+        return switch (event.getEventType()) {
+            case WELCOME_EMAIL -> emailService.welcomeEmail(payload.get("email"), payload.get("username"));
+            case PASSWORD_RESET_EMAIL -> emailService.passwordResetEmail(payload.get("email"), payload.get("token"));
+            default -> throw new IllegalArgumentException("Unsupported event type: " + event.getEventType());
+        };
+    }
+}
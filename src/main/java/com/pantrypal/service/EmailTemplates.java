@@ -0,0 +1,55 @@
+package com.pantrypal.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the email templates shipped under {@code templates/email}.
+ * Every template is parsed once at startup, which fills the Thymeleaf template
+ * cache and makes a missing or broken template fail the boot instead of the
+ * first send. Rendering reuses one {@link Context} per thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailTemplates {
+
+    public static final String WELCOME = "email/welcome";
+    public static final String PASSWORD_RESET = "email/password-reset";
+
+    static final List<String> ALL = List.of(WELCOME, PASSWORD_RESET);
+
+    private final TemplateEngine templateEngine;
+
+    private final ThreadLocal<Context> contexts = ThreadLocal.withInitial(Context::new);
+
+    @PostConstruct
+    public void preload() {
+        for (String template : ALL) {
+            try {
+                templateEngine.process(template, new Context());
+            } catch (Exception e) {
+                throw new IllegalStateException("Email template could not be loaded: " + template, e);
+            }
+        }
+        log.info("Preloaded {} email templates", ALL.size());
+    }
+
+    public String render(String template, Map<String, Object> variables) {
+        Context context = contexts.get();
+        context.clearVariables();
+        context.setVariables(variables);
+        try {
+            return templateEngine.process(template, context);
+        } finally {
+            context.clearVariables();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.pantrypal.service;
 
 import com.pantrypal.dto.request.*;
+import com.pantrypal.dto.response.BatchOperationResult;
 import com.pantrypal.dto.response.InventoryItemResponse;
 import com.pantrypal.dto.response.PaginatedResponse;
+import com.pantrypal.dto.response.VersionConflictResponse;
 import com.pantrypal.entity.InventoryItem;
 import com.pantrypal.entity.User;
 import com.pantrypal.entity.enums.Category;
@@ -11,6 +13,8 @@ import com.pantrypal.entity.enums.Frequency;
 import com.pantrypal.exception.*;
 import com.pantrypal.repository.InventoryItemRepository;
 import com.pantrypal.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,8 +24,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +42,7 @@ public class InventoryService {
 
     private final InventoryItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ObservationRegistry observationRegistry;
 
     @Transactional(readOnly = true)
     public PaginatedResponse<InventoryItemResponse> getItems(
@@ -80,12 +92,14 @@ public class InventoryService {
     public List<InventoryItemResponse> getAllItemsByUserId(
             Long userId) {
         log.debug("Fetching all items for user: {}", userId);
-        List<InventoryItem> itemsPage
-              = itemRepository.findByUserId(userId);
-        List<InventoryItemResponse> items = itemsPage.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return items;
+        List<InventoryItem> itemsPage = Observation.createNotStarted("inventory.items.query", observationRegistry)
+                .contextualName("items-query")
+                .observe(() -> itemRepository.findByUserId(userId));
+        return Observation.createNotStarted("inventory.items.mapping", observationRegistry)
+                .contextualName("items-mapping")
+                .observe(() -> itemsPage.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
@@ -150,50 +164,29 @@ public class InventoryService {
 
     @Transactional
     public InventoryItemResponse createItem(Long userId, InventoryItemRequest request) {
-        log.info("Creating item for user: {}", userId);
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        log.debug("Creating item for user: {}", userId);
 
-        InventoryItem item = InventoryItem.builder()
-                .user(user)
-                .name(request.getName())
-                .category(Category.valueOf(request.getCategory().toUpperCase()))
-                .status(Status.valueOf(request.getStatus().toUpperCase()))
-                .frequency(Frequency.valueOf(request.getFrequency().toUpperCase()))
-                .price(request.getPrice() != null ? request.getPrice() : null)
-                .note(request.getNote())
-                .needBy(request.getNeedBy())
-                .build();
+        // userId comes from the authenticated principal, so only a reference is needed for the FK
+        User user = userRepository.getReferenceById(userId);
 
-        item = itemRepository.save(item);
-        log.info("Item created: {}", item.getId());
+        InventoryItem item = itemRepository.save(newItem(user, request));
+        log.debug("Item created: {}", item.getId());
 
         return mapToResponse(item);
     }
 
     @Transactional
     public List<InventoryItemResponse> bulkCreateItems(Long userId, BulkItemsRequest request) {
-        log.info("Bulk creating {} items for user: {}", request.getItems().size(), userId);
+        log.debug("Bulk creating {} items for user: {}", request.getItems().size(), userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User user = userRepository.getReferenceById(userId);
 
         List<InventoryItem> items = request.getItems().stream()
-                .map(req -> InventoryItem.builder()
-                        .user(user)
-                        .name(req.getName())
-                        .category(Category.valueOf(req.getCategory().toUpperCase()))
-                        .status(Status.valueOf(req.getStatus().toUpperCase()))
-                        .frequency(Frequency.valueOf(req.getFrequency().toUpperCase()))
-                        .price(req.getPrice() != null ? req.getPrice() : null)
-                        .note(req.getNote())
-                        .needBy(req.getNeedBy())
-                        .build())
+                .map(req -> newItem(user, req))
                 .collect(Collectors.toList());
 
         items = itemRepository.saveAll(items);
-        log.info("Bulk created {} items", items.size());
+        log.debug("Bulk created {} items", items.size());
 
         return items.stream()
                 .map(this::mapToResponse)
@@ -201,10 +194,10 @@ public class InventoryService {
     }
 
     @Transactional
-    public InventoryItemResponse updateItem(Long userId, Long itemId, InventoryItemRequest request) {
-        log.info("Updating item: {} for user: {}", itemId, userId);
+    public InventoryItemResponse updateItem(Long userId, Long itemId, InventoryItemRequest request, Long expectedVersion) {
+        log.debug("Updating item: {} for user: {}", itemId, userId);
 
-        InventoryItem item = getItemEntity(userId, itemId);
+        InventoryItem item = getItemEntity(userId, itemId, expectedVersion);
 
         item.setName(request.getName());
         item.setCategory(Category.valueOf(request.getCategory().toUpperCase()));
@@ -214,71 +207,183 @@ public class InventoryService {
         item.setNote(request.getNote());
         item.setNeedBy(request.getNeedBy());
 
-        item = itemRepository.save(item);
-        log.info("Item updated: {}", itemId);
+        item = itemRepository.saveAndFlush(item);
+        log.debug("Item updated: {}", itemId);
 
         return mapToResponse(item);
     }
 
     @Transactional
-    public InventoryItemResponse patchItem(Long userId, Long itemId, InventoryItemRequest request) {
-        log.info("Patching item: {} for user: {}", itemId, userId);
+    public InventoryItemResponse patchItem(Long userId, Long itemId, InventoryItemRequest request, Long expectedVersion) {
+        log.debug("Patching item: {} for user: {}", itemId, userId);
 
-        InventoryItem item = getItemEntity(userId, itemId);
+        InventoryItem item = getItemEntity(userId, itemId, expectedVersion);
+        applyPatch(item, request);
 
-        if (request.getName() != null) item.setName(request.getName());
-        if (request.getCategory() != null) item.setCategory(Category.valueOf(request.getCategory().toUpperCase()));
-        if (request.getStatus() != null) item.setStatus(Status.valueOf(request.getStatus().toUpperCase()));
-        if (request.getFrequency() != null) item.setFrequency(Frequency.valueOf(request.getFrequency().toUpperCase()));
-        if (request.getPrice() != null) item.setPrice(request.getPrice());
-        if (request.getNote() != null) item.setNote(request.getNote());
-        if (request.getNeedBy() != null) item.setNeedBy(request.getNeedBy());
-
-        item = itemRepository.save(item);
-        log.info("Item patched: {}", itemId);
+        item = itemRepository.saveAndFlush(item);
+        log.debug("Item patched: {}", itemId);
 
         return mapToResponse(item);
     }
 
+    /**
+     * Fails the same way a direct write would when the item is missing or someone else's,
+     * for changes that are buffered rather than written now.
+     */
+    @Transactional(readOnly = true)
+    public void requireOwnedItem(Long userId, Long itemId) {
+        if (itemRepository.existsByUserIdAndId(userId, itemId)) {
+            return;
+        }
+        if (itemRepository.existsById(itemId)) {
+            throw new UnauthorizedException("You don't have permission to access this item");
+        }
+        throw new ResourceNotFoundException("Item not found with id: " + itemId);
+    }
+
     @Transactional
-    public InventoryItemResponse updateItemStatus(Long userId, Long itemId, StatusUpdateRequest request) {
-        log.info("Updating status for item: {} to {}", itemId, request.getStatus());
+    public InventoryItemResponse updateItemStatus(Long userId, Long itemId, StatusUpdateRequest request, Long expectedVersion) {
+        log.debug("Updating status for item: {} to {}", itemId, request.getStatus());
 
-        InventoryItem item = getItemEntity(userId, itemId);
+        InventoryItem item = getItemEntity(userId, itemId, expectedVersion);
         item.setStatus(Status.valueOf(request.getStatus().toUpperCase()));
 
-        item = itemRepository.save(item);
-        log.info("Item status updated: {}", itemId);
+        item = itemRepository.saveAndFlush(item);
+        log.debug("Item status updated: {}", itemId);
 
         return mapToResponse(item);
     }
 
     @Transactional
-    public void deleteItem(Long userId, Long itemId) {
-        log.info("Deleting item: {} for user: {}", itemId, userId);
+    public void deleteItem(Long userId, Long itemId, Long expectedVersion) {
+        log.debug("Deleting item: {} for user: {}", itemId, userId);
 
-        InventoryItem item = getItemEntity(userId, itemId);
+        InventoryItem item = getItemEntity(userId, itemId, expectedVersion);
         itemRepository.delete(item);
+        itemRepository.flush();
 
-        log.info("Item deleted: {}", itemId);
+        log.debug("Item deleted: {}", itemId);
     }
 
     @Transactional
-    public int bulkDeleteItems(Long userId, List<Long> itemIds) {
-        log.info("Bulk deleting {} items for user: {}", itemIds.size(), userId);
-
-        // Verify all items belong to the user
-        Long count = itemRepository.countByUserIdAndIdIn(userId, itemIds);
-        if (count != itemIds.size()) {
-            throw new UnauthorizedException("Some items do not belong to the user");
+    public int bulkDeleteItems(Long userId, List<Long> itemIds, Map<Long, Long> expectedVersions) {
+        log.debug("Bulk deleting {} items for user: {}", itemIds.size(), userId);
+
+        if (expectedVersions == null || expectedVersions.isEmpty()) {
+            // Verify all items belong to the user
+            Long count = itemRepository.countByUserIdAndIdIn(userId, itemIds);
+            if (count != itemIds.size()) {
+                throw new UnauthorizedException("Some items do not belong to the user");
+            }
+        } else {
+            // Lock the rows so no edit can land between the version check and the delete,
+            // and report every stale item at once rather than failing on the first
+            List<InventoryItem> items = itemRepository.findByUserIdAndIdInForUpdate(userId, itemIds);
+            if (items.size() != itemIds.size()) {
+                throw new UnauthorizedException("Some items do not belong to the user");
+            }
+            List<VersionConflictResponse> conflicts = new ArrayList<>();
+            for (InventoryItem item : items) {
+                Long expected = expectedVersions.get(item.getId());
+                if (expected != null && !expected.equals(item.getVersion())) {
+                    conflicts.add(new VersionConflictResponse(item.getId(), expected, item.getVersion()));
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                throw new ConflictException(conflicts.size() + " items were modified by another request", conflicts);
+            }
         }
 
         itemRepository.deleteByUserIdAndIdIn(userId, itemIds);
-        log.info("Bulk deleted {} items", itemIds.size());
+        log.debug("Bulk deleted {} items", itemIds.size());
 
         return itemIds.size();
     }
 
+    /**
+     * Runs the operations in order in one transaction, so either all of them are applied or
+     * none is. Every item the batch refers to is loaded and locked by one query, which is
+     * also the ownership and version check; the updates and deletes are then written
+     * together at flush, where Hibernate batches them.
+     */
+    @Transactional
+    public List<BatchOperationResult> executeBatch(Long userId, BatchOperationsRequest request) {
+        List<BatchOperation> operations = request.getOperations();
+        log.debug("Running batch of {} operations for user: {}", operations.size(), userId);
+
+        for (int i = 0; i < operations.size(); i++) {
+            validateBatchOperation(i, operations.get(i));
+        }
+
+        List<Long> ids = operations.stream()
+                .map(BatchOperation::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, InventoryItem> items = ids.isEmpty() ? new HashMap<>()
+                : itemRepository.findByUserIdAndIdInForUpdate(userId, ids).stream()
+                        .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+        if (items.size() != ids.size()) {
+            throw new UnauthorizedException("Some items do not belong to the user");
+        }
+
+        List<VersionConflictResponse> conflicts = new ArrayList<>();
+        for (BatchOperation operation : operations) {
+            if (operation.getVersion() != null) {
+                Long current = items.get(operation.getId()).getVersion();
+                if (!operation.getVersion().equals(current)) {
+                    conflicts.add(new VersionConflictResponse(operation.getId(), operation.getVersion(), current));
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ConflictException(conflicts.size() + " items were modified by another request", conflicts);
+        }
+
+        User user = null;
+        Set<Long> deleted = new HashSet<>();
+        List<InventoryItem> touched = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation.getId() != null && deleted.contains(operation.getId())) {
+                throw new ValidationException("Operation " + i + ": item " + operation.getId()
+                        + " is deleted earlier in the batch");
+            }
+            InventoryItem item = operation.getId() != null ? items.get(operation.getId()) : null;
+            switch (operation.getOp().toLowerCase()) {
+                case "create" -> {
+                    if (user == null) {
+                        user = userRepository.getReferenceById(userId);
+                    }
+                    item = itemRepository.save(newItem(user, operation.getItem()));
+                }
+                case "patch" -> applyPatch(item, operation.getItem());
+                case "status" -> item.setStatus(Status.valueOf(operation.getStatus().toUpperCase()));
+                case "delete" -> {
+                    itemRepository.delete(item);
+                    deleted.add(item.getId());
+                }
+                default -> throw new ValidationException("Operation " + i + ": unknown op " + operation.getOp());
+            }
+            touched.add(item);
+        }
+        itemRepository.flush();
+        log.debug("Batch applied {} operations", operations.size());
+
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            String op = operations.get(i).getOp().toLowerCase();
+            InventoryItem item = touched.get(i);
+            results.add(BatchOperationResult.builder()
+                    .index(i)
+                    .op(op)
+                    .id(item.getId())
+                    .item(op.equals("delete") ? null : mapToResponse(item))
+                    .build());
+        }
+        return results;
+    }
+
     @Transactional(readOnly = true)
     public List<InventoryItemResponse> searchItems(Long userId, String query) {
         log.debug("Searching items for user: {} with query: {}", userId, query);
@@ -304,6 +409,45 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    private static void validateBatchOperation(int index, BatchOperation operation) {
+        String op = operation.getOp().toLowerCase();
+        if (!op.equals("create") && operation.getId() == null) {
+            throw new ValidationException("Operation " + index + ": id is required for " + op);
+        }
+        if (op.equals("create") && (operation.getId() != null || operation.getVersion() != null)) {
+            throw new ValidationException("Operation " + index + ": create does not take an id or version");
+        }
+        if ((op.equals("create") || op.equals("patch")) && operation.getItem() == null) {
+            throw new ValidationException("Operation " + index + ": item is required for " + op);
+        }
+        if (op.equals("status") && operation.getStatus() == null) {
+            throw new ValidationException("Operation " + index + ": status is required");
+        }
+    }
+
+    private static InventoryItem newItem(User user, InventoryItemRequest request) {
+        return InventoryItem.builder()
+                .user(user)
+                .name(request.getName())
+                .category(Category.valueOf(request.getCategory().toUpperCase()))
+                .status(Status.valueOf(request.getStatus().toUpperCase()))
+                .frequency(Frequency.valueOf(request.getFrequency().toUpperCase()))
+                .price(request.getPrice() != null ? request.getPrice() : null)
+                .note(request.getNote())
+                .needBy(request.getNeedBy())
+                .build();
+    }
+
+    private static void applyPatch(InventoryItem item, InventoryItemRequest request) {
+        if (request.getName() != null) item.setName(request.getName());
+        if (request.getCategory() != null) item.setCategory(Category.valueOf(request.getCategory().toUpperCase()));
+        if (request.getStatus() != null) item.setStatus(Status.valueOf(request.getStatus().toUpperCase()));
+        if (request.getFrequency() != null) item.setFrequency(Frequency.valueOf(request.getFrequency().toUpperCase()));
+        if (request.getPrice() != null) item.setPrice(request.getPrice());
+        if (request.getNote() != null) item.setNote(request.getNote());
+        if (request.getNeedBy() != null) item.setNeedBy(request.getNeedBy());
+    }
+
     private InventoryItem getItemEntity(Long userId, Long itemId) {
         InventoryItem item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
@@ -312,13 +456,27 @@ public class InventoryService {
         return item;
     }
 
+    /**
+     * Fails fast when the client's version is already stale. A write that races past this
+     * check still fails at flush, because Hibernate conditions the UPDATE on the version
+     * that was read here. A null expected version skips the check (no If-Match sent).
+     */
+    private InventoryItem getItemEntity(Long userId, Long itemId, Long expectedVersion) {
+        InventoryItem item = getItemEntity(userId, itemId);
+        if (expectedVersion != null && !expectedVersion.equals(item.getVersion())) {
+            throw ConflictException.of(itemId, expectedVersion, item.getVersion());
+        }
+        return item;
+    }
+
     private void validateUserOwnership(Long userId, InventoryItem item) {
         if (!item.getUser().getId().equals(userId)) {
             throw new UnauthorizedException("You don't have permission to access this item");
         }
     }
 
-    private InventoryItemResponse mapToResponse(InventoryItem item) {
+    // Package-private for InventoryMappingBenchmark
+    InventoryItemResponse mapToResponse(InventoryItem item) {
         return InventoryItemResponse.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -330,6 +488,7 @@ public class InventoryService {
                 .needBy(item.getNeedBy())
                 .createdAt(item.getCreatedAt())
                 .updatedAt(item.getUpdatedAt())
+                .version(item.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,41 @@
+package com.pantrypal.service;
+
+import com.pantrypal.repository.JobLockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease-based leader election on the {@code job_locks} table. A lease expires on its
+ * own, so a node that dies mid-job only blocks the others until {@code lockedUntil}.
+ */
+@Service
+@RequiredArgsConstructor
+public class JobLockService {
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName()
+            + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final JobLockRepository jobLockRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lease);
+
+        // Update an expired lease first; the insert only happens the first time a job runs
+        return jobLockRepository.tryAcquire(name, owner, now, until) == 1
+                || jobLockRepository.insertIfAbsent(name, owner, until) == 1;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlock(String name) {
+        jobLockRepository.release(name, owner, LocalDateTime.now());
+    }
+}
@@ -1,5 +1,6 @@
 package com.pantrypal.service;
 
+import com.pantrypal.monitoring.LogThrottle;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -87,15 +88,17 @@ public class JwtService {
                     .build()
                     .parseClaimsJws(token);
             return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
+            // Routine for clients that refresh lazily; not worth more than a debug line
+            log.debug("JWT token is expired: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            logRejectedToken(e);
         }
         return false;
     }
+
+    private void logRejectedToken(Exception e) {
+        String reason = e.getClass().getSimpleName();
+        LogThrottle.REJECTED_TOKENS.warnThrottled(log, reason, "Rejected JWT (" + reason + "): " + e.getMessage());
+    }
 }
@@ -0,0 +1,114 @@
+package com.pantrypal.service;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends rendered emails in batches: each call hands the whole batch to
+ * {@link JavaMailSender#send(MimeMessage...)}, which delivers it over a single SMTP
+ * connection. Retries belong to the caller; the outbox relay reschedules the rows
+ * whose emails come back as failures.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MailDispatcher {
+
+    @Value("${app.email.from:pantrypal@example.com}")
+    private String fromEmail;
+
+    private final JavaMailSender mailSender;
+    private final EmailTemplates emailTemplates;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Deliver a batch synchronously over one SMTP connection, without retrying.
+     * Returns the emails that could not be sent.
+     */
+    public List<OutboundEmail> send(List<OutboundEmail> batch) {
+        List<OutboundEmail> failures = sendBatch(batch);
+        failed.addAndGet(failures.size());
+        return failures;
+    }
+
+    private List<OutboundEmail> sendBatch(List<OutboundEmail> batch) {
+        List<OutboundEmail> failures = new ArrayList<>();
+        Map<MimeMessage, OutboundEmail> messages = new IdentityHashMap<>(batch.size());
+        for (OutboundEmail email : batch) {
+            try {
+                messages.put(render(email), email);
+            } catch (Exception e) {
+                log.error("Failed to render email '{}' to: {}", email.getTemplate(), email.getTo(), e);
+                failures.add(email);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        batches.incrementAndGet();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            sent.addAndGet(messages.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                log.warn("Failed to send batch of {} emails: {}", messages.size(), e.getMessage());
+                failures.addAll(messages.values());
+                return failures;
+            }
+            sent.addAndGet(messages.size() - failedMessages.size());
+            failedMessages.forEach((message, cause) -> {
+                OutboundEmail email = messages.get(message);
+                if (email != null) {
+                    log.warn("Failed to send email to: {} ({})", email.getTo(), cause.getMessage());
+                    failures.add(email);
+                }
+            });
+        } catch (MailException e) {
+            log.warn("Failed to send batch of {} emails: {}", messages.size(), e.getMessage());
+            failures.addAll(messages.values());
+        }
+        return failures;
+    }
+
+    private MimeMessage render(OutboundEmail email) throws Exception {
+        String content = emailTemplates.render(email.getTemplate(), email.getVariables());
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
+        helper.setText(content, true);
+        return message;
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+}
@@ -0,0 +1,25 @@
+package com.pantrypal.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * An email ready for {@link MailDispatcher}. The template is only rendered when
+ * the batch is sent, so building one of these is cheap.
+ */
+@Getter
+@Builder
+@ToString(exclude = "variables")
+public class OutboundEmail {
+
+    private final String to;
+    private final String subject;
+    private final String template;
+
+    @Singular
+    private final Map<String, Object> variables;
+}
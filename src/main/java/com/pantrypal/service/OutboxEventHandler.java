@@ -0,0 +1,19 @@
+package com.pantrypal.service;
+
+import com.pantrypal.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * A delivery sink for outbox events. The relay groups each polled batch by handler,
+ * so a handler can deliver several events in one go (e.g. over one SMTP connection).
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(String eventType);
+
+    /**
+     * Deliver the events, returning the ones that failed and should be retried.
+     */
+    List<OutboxEvent> handle(List<OutboxEvent> events);
+}
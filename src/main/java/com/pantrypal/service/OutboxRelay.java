@@ -0,0 +1,173 @@
+package com.pantrypal.service;
+
+import com.pantrypal.entity.OutboxEvent;
+import com.pantrypal.entity.enums.OutboxStatus;
+import com.pantrypal.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} in batches. Each batch is claimed with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so several instances can poll the same
+ * table without double delivery or waiting on each other. Delivered rows are deleted;
+ * failed rows are pushed back with exponential backoff until they run out of attempts.
+ * <p>
+ * The relay polls on its own thread rather than the shared scheduling pool: a batch
+ * holds its row locks while it talks to SMTP, and a slow mail server must not hold up
+ * the write-behind flush, replica heartbeat and other short periodic jobs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    @Value("${app.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::relay, Duration.ofMillis(pollIntervalMs));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    public void relay() {
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> relayBatch());
+        } while (processed != null && processed == batchSize);
+    }
+
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(now, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<OutboxEventHandler, List<OutboxEvent>> byHandler = new LinkedHashMap<>();
+        Set<OutboxEvent> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OutboxEvent event : events) {
+            OutboxEventHandler handler = findHandler(event.getEventType());
+            if (handler == null) {
+                log.error("No outbox handler for event type: {}", event.getEventType());
+                failures.add(event);
+            } else {
+                byHandler.computeIfAbsent(handler, h -> new ArrayList<>()).add(event);
+            }
+        }
+
+        byHandler.forEach((handler, batch) -> {
+            try {
+                failures.addAll(handler.handle(batch));
+            } catch (Exception e) {
+                log.error("Outbox handler {} failed", handler.getClass().getSimpleName(), e);
+                failures.addAll(batch);
+            }
+        });
+
+        List<Long> deliveredIds = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            if (failures.contains(event)) {
+                reschedule(event, now);
+            } else {
+                deliveredIds.add(event.getId());
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            delivered.addAndGet(deliveredIds.size());
+        }
+        log.debug("Outbox batch relayed: {} delivered, {} failed", deliveredIds.size(), events.size() - deliveredIds.size());
+        return events.size();
+    }
+
+    private void reschedule(OutboxEvent event, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            deadLettered.incrementAndGet();
+            log.error("Outbox event {} ({}) failed after {} attempts", event.getId(), event.getEventType(), attempts);
+        } else {
+            long backoffMs = initialBackoffMs << Math.min(attempts - 1, 16);
+            event.setAvailableAt(now.plus(backoffMs, ChronoUnit.MILLIS));
+            retried.incrementAndGet();
+        }
+        outboxEventRepository.save(event);
+    }
+
+    private OutboxEventHandler findHandler(String eventType) {
+        for (OutboxEventHandler handler : handlers) {
+            if (handler.supports(eventType)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+}
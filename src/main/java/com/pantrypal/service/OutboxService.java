@@ -0,0 +1,58 @@
+package com.pantrypal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pantrypal.entity.OutboxEvent;
+import com.pantrypal.exception.BusinessException;
+import com.pantrypal.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final TypeReference<Map<String, String>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Record an event in the caller's transaction. It is only delivered if that
+     * transaction commits, and it survives a crash until the relay picks it up.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, Map<String, String> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .eventType(eventType)
+                .payload(writePayload(payload))
+                .availableAt(LocalDateTime.now())
+                .build();
+
+        outboxEventRepository.save(event);
+        log.debug("Outbox event recorded: {}", eventType);
+    }
+
+    public Map<String, String> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Invalid outbox payload for event: " + event.getId(), e);
+        }
+    }
+
+    private String writePayload(Map<String, String> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Could not serialize outbox payload", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.pantrypal.service;
 
 import com.pantrypal.entity.RefreshToken;
 import com.pantrypal.entity.User;
+import com.pantrypal.exception.ResourceNotFoundException;
 import com.pantrypal.exception.UnauthorizedException;
 import com.pantrypal.repository.RefreshTokenRepository;
 import com.pantrypal.repository.UserRepository;
@@ -10,8 +11,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -19,53 +28,120 @@ import java.util.UUID;
 @Slf4j
 public class RefreshTokenService {
 
+    public static final String DEFAULT_DEVICE_ID = "default";
+
     @Value("${app.jwt.refresh-expiration}")
     private Long refreshTokenDurationMs;
 
+    // Store only a SHA-256 digest of each token, so a leaked table cannot be replayed
+    @Value("${app.jwt.refresh-token-hashing:false}")
+    private boolean hashTokens;
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
+    private final SessionRegistry sessionRegistry;
 
+    /**
+     * Issue a new refresh token for one of the user's devices and return the raw token value.
+     * The device's existing row is updated in place; a row is only inserted the first time
+     * a device logs in. Sessions on other devices are left alone.
+     */
     @Transactional
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Revoke existing tokens for this user
-        refreshTokenRepository.deleteByUserId(userId);
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(LocalDateTime.now().plus(refreshTokenDurationMs, ChronoUnit.MILLIS))
-                .revoked(false)
-                .build();
+    public String createRefreshToken(User user, String deviceId, String deviceName) {
+        String device = StringUtils.hasText(deviceId) ? deviceId : DEFAULT_DEVICE_ID;
+        String token = UUID.randomUUID().toString();
+        String storedToken = toStoredToken(token);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiryDate = newExpiryDate(now);
 
-        return refreshTokenRepository.save(refreshToken);
+        if (refreshTokenRepository.replaceTokenForDevice(user.getId(), device, deviceName, storedToken, expiryDate, now) == 0) {
+            RefreshToken refreshToken = RefreshToken.builder()
+                    .user(userRepository.getReferenceById(user.getId()))
+                    .token(storedToken)
+                    .deviceId(device)
+                    .deviceName(deviceName)
+                    .expiryDate(expiryDate)
+                    .lastUsedAt(now)
+                    .revoked(false)
+                    .build();
+            refreshTokenRepository.save(refreshToken);
+        }
+
+        putAfterCommit(SessionRegistry.Session.builder()
+                .token(storedToken)
+                .userId(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .userCreatedAt(user.getCreatedAt())
+                .deviceId(device)
+                .expiryDate(expiryDate)
+                .build());
+        return token;
     }
 
+    /**
+     * Resolve a raw refresh token to its session, from the registry when possible
+     * and otherwise with one query that also fetches the owning user.
+     */
     @Transactional(readOnly = true)
-    public RefreshToken findByToken(String token) {
-        return refreshTokenRepository.findByToken(token)
-                .orElseThrow(() -> new UnauthorizedException("Refresh token not found"));
+    public SessionRegistry.Session findSession(String token) {
+        String storedToken = toStoredToken(token);
+        return sessionRegistry.get(storedToken).orElseGet(() -> {
+            RefreshToken refreshToken = refreshTokenRepository.findByToken(storedToken)
+                    .orElseThrow(() -> new UnauthorizedException("Refresh token not found"));
+            SessionRegistry.Session session = toSession(refreshToken);
+            sessionRegistry.put(session);
+            return session;
+        });
     }
 
+    /**
+     * Replace the token in a single conditional update and return the new raw value.
+     * Fails if another request rotated or revoked the token first.
+     */
     @Transactional
-    public RefreshToken rotateRefreshToken(RefreshToken oldToken) {
-        // Revoke old token
-        oldToken.setRevoked(true);
-        refreshTokenRepository.save(oldToken);
+    public String rotateRefreshToken(SessionRegistry.Session session) {
+        String token = UUID.randomUUID().toString();
+        String storedToken = toStoredToken(token);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiryDate = newExpiryDate(now);
+
+        int updated = refreshTokenRepository.rotateToken(session.getToken(), storedToken, expiryDate, now);
+        if (updated == 0) {
+            sessionRegistry.invalidate(session.getToken());
+            throw new UnauthorizedException("Refresh token is expired or revoked");
+        }
 
-        // Create new token
-        return createRefreshToken(oldToken.getUser().getId());
+        putAfterCommit(SessionRegistry.Session.builder()
+                .token(storedToken)
+                .userId(session.getUserId())
+                .username(session.getUsername())
+                .email(session.getEmail())
+                .userCreatedAt(session.getUserCreatedAt())
+                .deviceId(session.getDeviceId())
+                .expiryDate(expiryDate)
+                .build());
+        return token;
     }
 
     @Transactional
     public void revokeRefreshToken(String token) {
-        refreshTokenRepository.findByToken(token)
-                .ifPresent(refreshToken -> {
-                    refreshToken.setRevoked(true);
-                    refreshTokenRepository.save(refreshToken);
-                });
+        String storedToken = toStoredToken(token);
+        refreshTokenRepository.revokeToken(storedToken);
+        sessionRegistry.invalidate(storedToken);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RefreshToken> getActiveSessions(Long userId) {
+        return refreshTokenRepository.findActiveByUserId(userId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void revokeSession(Long userId, String deviceId) {
+        if (refreshTokenRepository.revokeByUserIdAndDeviceId(userId, deviceId) == 0) {
+            throw new ResourceNotFoundException("Session not found for device: " + deviceId);
+        }
+        sessionRegistry.invalidateDevice(userId, deviceId);
     }
 
     @Transactional
@@ -75,6 +151,56 @@ public class RefreshTokenService {
 
     @Transactional(readOnly = true)
     public boolean validateToken(String token) {
-        return refreshTokenRepository.isValidToken(token, LocalDateTime.now());
+        String storedToken = toStoredToken(token);
+        return sessionRegistry.get(storedToken)
+                .map(session -> !session.isRevoked() && session.getExpiryDate().isAfter(LocalDateTime.now()))
+                .orElseGet(() -> refreshTokenRepository.isValidToken(storedToken, LocalDateTime.now()));
+    }
+
+    /**
+     * Cache a new session only once its row is committed, so a registration or login that
+     * rolls back later does not leave the registry vouching for a token that never existed.
+     */
+    private void putAfterCommit(SessionRegistry.Session session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sessionRegistry.put(session);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessionRegistry.put(session);
+            }
+        });
+    }
+
+    private SessionRegistry.Session toSession(RefreshToken refreshToken) {
+        User user = refreshToken.getUser();
+        return SessionRegistry.Session.builder()
+                .token(refreshToken.getToken())
+                .userId(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .userCreatedAt(user.getCreatedAt())
+                .deviceId(refreshToken.getDeviceId())
+                .expiryDate(refreshToken.getExpiryDate())
+                .revoked(refreshToken.isRevoked())
+                .build();
+    }
+
+    private LocalDateTime newExpiryDate(LocalDateTime now) {
+        return now.plus(refreshTokenDurationMs, ChronoUnit.MILLIS);
+    }
+
+    private String toStoredToken(String token) {
+        if (!hashTokens) {
+            return token;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
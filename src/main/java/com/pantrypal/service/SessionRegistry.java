@@ -0,0 +1,139 @@
+package com.pantrypal.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of active refresh-token sessions, keyed by stored token value.
+ * A hit lets a refresh skip the token lookup entirely; the rotation itself is still a
+ * conditional UPDATE, so an entry made stale by another node is caught there.
+ * Entries live for {@code cache-ttl-ms} and the map is capped at {@code max-entries}.
+ */
+@Component
+@Slf4j
+public class SessionRegistry {
+
+    @Value("${app.sessions.cache-ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.sessions.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, CachedSession> sessionsByToken = new ConcurrentHashMap<>();
+    private final Map<String, String> tokensByDevice = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public Optional<Session> get(String storedToken) {
+        CachedSession cached = sessionsByToken.get(storedToken);
+        if (cached == null || cached.isStale(System.nanoTime(), ttlMs)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(cached.session);
+    }
+
+    public void put(Session session) {
+        if (sessionsByToken.size() >= maxEntries) {
+            evict();
+        }
+        String deviceKey = deviceKey(session.getUserId(), session.getDeviceId());
+        String previous = tokensByDevice.put(deviceKey, session.getToken());
+        if (previous != null && !previous.equals(session.getToken())) {
+            sessionsByToken.remove(previous);
+        }
+        sessionsByToken.put(session.getToken(), new CachedSession(session, System.nanoTime()));
+    }
+
+    public void invalidate(String storedToken) {
+        CachedSession removed = sessionsByToken.remove(storedToken);
+        if (removed != null) {
+            tokensByDevice.remove(deviceKey(removed.session.getUserId(), removed.session.getDeviceId()), storedToken);
+        }
+    }
+
+    public void invalidateDevice(Long userId, String deviceId) {
+        String token = tokensByDevice.remove(deviceKey(userId, deviceId));
+        if (token != null) {
+            sessionsByToken.remove(token);
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        sessionsByToken.values().removeIf(cached -> cached.isStale(now, ttlMs));
+
+        // Still full of live entries: drop an arbitrary tenth rather than grow
+        Iterator<String> tokens = sessionsByToken.keySet().iterator();
+        int toRemove = sessionsByToken.size() - (maxEntries - maxEntries / 10);
+        while (toRemove-- > 0 && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+            evictions.incrementAndGet();
+        }
+        tokensByDevice.values().removeIf(token -> !sessionsByToken.containsKey(token));
+    }
+
+    private static String deviceKey(Long userId, String deviceId) {
+        return userId + ":" + deviceId;
+    }
+
+    public int size() {
+        return sessionsByToken.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * The parts of a refresh token and its user needed to issue new tokens.
+     */
+    @Getter
+    @Builder
+    public static class Session {
+        private final String token;
+        private final Long userId;
+        private final String username;
+        private final String email;
+        private final LocalDateTime userCreatedAt;
+        private final String deviceId;
+        private final LocalDateTime expiryDate;
+        private final boolean revoked;
+    }
+
+    private static class CachedSession {
+        private final Session session;
+        private final long cachedAtNanos;
+
+        CachedSession(Session session, long cachedAtNanos) {
+            this.session = session;
+            this.cachedAtNanos = cachedAtNanos;
+        }
+
+        boolean isStale(long nowNanos, long ttlMs) {
+            return nowNanos - cachedAtNanos > ttlMs * 1_000_000L;
+        }
+    }
+}
@@ -46,10 +46,7 @@ public class StatsService {
         List<Object[]> results = itemRepository.findMonthlySpendingNative(userId, months);
 
         return results.stream()
-                .map(row -> StatsResponse.MonthlySpending.builder()
-                        .month((String) row[0])
-                        .amount(((BigDecimal) row[1]).doubleValue())
-                        .build())
+                .map(StatsService::toMonthlySpending)
                 .collect(Collectors.toList());
     }
 
@@ -60,11 +57,7 @@ public class StatsService {
         List<Object[]> results = itemRepository.findCategoryBreakdown(userId);
 
         return results.stream()
-                .map(row -> StatsResponse.CategoryBreakdown.builder()
-                        .category(((Enum<?>) row[0]).name().toLowerCase())
-                        .count((Long) row[1])
-                        .totalSpending(((BigDecimal) row[2]).doubleValue())
-                        .build())
+                .map(StatsService::toCategoryBreakdown)
                 .collect(Collectors.toList());
     }
 
@@ -75,11 +68,32 @@ public class StatsService {
         List<Object[]> results = itemRepository.findFrequencyReport(userId);
 
         return results.stream()
-                .map(row -> FrequencyReportResponse.builder()
-                        .frequency(((Enum<?>) row[0]).name().toLowerCase())
-                        .count((Long) row[1])
-                        .totalSpending(((BigDecimal) row[2]).doubleValue())
-                        .build())
+                .map(StatsService::toFrequencyReport)
                 .collect(Collectors.toList());
     }
+
+    // Row mappers are package-private so the JMH benchmarks can exercise them without a database
+
+    static StatsResponse.MonthlySpending toMonthlySpending(Object[] row) {
+        return StatsResponse.MonthlySpending.builder()
+                .month((String) row[0])
+                .amount(((BigDecimal) row[1]).doubleValue())
+                .build();
+    }
+
+    static StatsResponse.CategoryBreakdown toCategoryBreakdown(Object[] row) {
+        return StatsResponse.CategoryBreakdown.builder()
+                .category(((Enum<?>) row[0]).name().toLowerCase())
+                .count((Long) row[1])
+                .totalSpending(((BigDecimal) row[2]).doubleValue())
+                .build();
+    }
+
+    static FrequencyReportResponse toFrequencyReport(Object[] row) {
+        return FrequencyReportResponse.builder()
+                .frequency(((Enum<?>) row[0]).name().toLowerCase())
+                .count((Long) row[1])
+                .totalSpending(((BigDecimal) row[2]).doubleValue())
+                .build();
+    }
 }
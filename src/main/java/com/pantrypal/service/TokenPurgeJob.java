@@ -0,0 +1,161 @@
+package com.pantrypal.service;
+
+import com.pantrypal.repository.IdempotencyRecordRepository;
+import com.pantrypal.repository.PasswordResetTokenRepository;
+import com.pantrypal.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Purges expired or revoked refresh tokens, used or expired password reset tokens and
+ * expired idempotency keys.
+ * Rows are deleted in LIMIT-ed chunks, each in its own short transaction, so the job
+ * never holds long locks. Runs are spread out with random jitter and only the node
+ * holding the {@value #LOCK_NAME} lease does the work.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.token-purge.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenPurgeJob {
+
+    static final String LOCK_NAME = "token-purge";
+
+    @Value("${app.token-purge.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Value("${app.token-purge.jitter-ms:300000}")
+    private long jitterMs;
+
+    @Value("${app.token-purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.token-purge.pause-ms:20}")
+    private long pauseMs;
+
+    @Value("${app.token-purge.max-run-ms:300000}")
+    private long maxRunMs;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JobLockService jobLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicLong refreshTokensPurged = new AtomicLong();
+    private final AtomicLong resetTokensPurged = new AtomicLong();
+    private final AtomicLong idempotencyKeysPurged = new AtomicLong();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong lastRunDurationMs = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleFirstRun() {
+        scheduleNextRun();
+    }
+
+    private void scheduleNextRun() {
+        long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0;
+        taskScheduler.schedule(this::runAndReschedule, Instant.now().plusMillis(intervalMs + jitter));
+    }
+
+    private void runAndReschedule() {
+        try {
+            purge();
+        } catch (Exception e) {
+            log.error("Token purge failed", e);
+        } finally {
+            scheduleNextRun();
+        }
+    }
+
+    public void purge() {
+        if (!jobLockService.tryLock(LOCK_NAME, Duration.ofMillis(maxRunMs))) {
+            skippedRuns.incrementAndGet();
+            log.debug("Token purge skipped, another node holds the lock");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long deadline = start + Duration.ofMillis(maxRunMs).toNanos();
+
+            long refreshPurged = purgeInChunks(refreshTokenRepository::deleteExpiredTokensBatch, now, deadline);
+            long resetPurged = purgeInChunks(passwordResetTokenRepository::deleteExpiredTokensBatch, now, deadline);
+            long keysPurged = purgeInChunks(idempotencyRecordRepository::deleteExpiredBatch, now, deadline);
+
+            refreshTokensPurged.addAndGet(refreshPurged);
+            resetTokensPurged.addAndGet(resetPurged);
+            idempotencyKeysPurged.addAndGet(keysPurged);
+            runs.incrementAndGet();
+
+            long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            lastRunDurationMs.set(elapsedMs);
+            log.info("Token purge removed {} refresh tokens, {} reset tokens and {} idempotency keys in {} ms",
+                    refreshPurged, resetPurged, keysPurged, elapsedMs);
+        } finally {
+            jobLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private long purgeInChunks(BiFunction<LocalDateTime, Integer, Integer> deleteBatch,
+                               LocalDateTime now, long deadlineNanos) {
+        long total = 0;
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status -> deleteBatch.apply(now, batchSize));
+            deleted = result != null ? result : 0;
+            total += deleted;
+
+            if (deleted == batchSize && pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == batchSize && System.nanoTime() < deadlineNanos);
+        return total;
+    }
+
+    public long getRefreshTokensPurged() {
+        return refreshTokensPurged.get();
+    }
+
+    public long getResetTokensPurged() {
+        return resetTokensPurged.get();
+    }
+
+    public long getIdempotencyKeysPurged() {
+        return idempotencyKeysPurged.get();
+    }
+
+    public long getRunCount() {
+        return runs.get();
+    }
+
+    public long getSkippedRunCount() {
+        return skippedRuns.get();
+    }
+
+    public long getLastRunDurationMs() {
+        return lastRunDurationMs.get();
+    }
+}
@@ -0,0 +1,162 @@
+package com.pantrypal.service;
+
+import com.pantrypal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over taken usernames, loaded at startup and updated on registration.
+ * A negative answer means the name is definitely free on this node's view, so the
+ * availability typeahead can answer without a query; a positive answer may be a false
+ * positive and is confirmed against the database. Names registered on other nodes are
+ * picked up every {@code refreshIntervalMs} by reading users past the last loaded id, so
+ * another node's registration can be reported as available for at most that long.
+ * Registration itself is still enforced by the unique constraint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UsernameBloomFilter {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    // Ids are allocated before commit, so a registration can become visible after a higher
+    // id; every refresh re-reads this many ids behind the cursor to catch those
+    private static final long REFRESH_OVERLAP_IDS = 100;
+
+    @Value("${app.username-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.username-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final UserRepository userRepository;
+
+    private volatile AtomicLongArray bits = new AtomicLongArray(1);
+    private volatile int hashCount = 1;
+    private volatile boolean ready;
+    private volatile long lastLoadedId;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong definitelyAbsent = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long userCount = userRepository.count();
+        long capacity = Math.max(expectedInsertions, userCount * 2);
+
+        long bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) / 64);
+        AtomicLongArray loaded = new AtomicLongArray(words);
+        int hashes = Math.max(1, (int) Math.round((double) words * 64 / capacity * Math.log(2)));
+
+        long[] afterId = {0L};
+        long loadedCount = loadAfter(loaded, hashes, afterId);
+
+        this.hashCount = hashes;
+        this.bits = loaded;
+        this.lastLoadedId = afterId[0];
+        this.ready = true;
+        log.info("Username filter loaded {} names into {} KB with {} hashes in {} ms",
+                loadedCount, (long) words * 8 / 1024, hashes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.username-filter.refresh-interval-ms:5000}",
+            initialDelayString = "${app.username-filter.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        long[] afterId = {Math.max(0, lastLoadedId - REFRESH_OVERLAP_IDS)};
+        loadAfter(bits, hashCount, afterId);
+        lastLoadedId = Math.max(lastLoadedId, afterId[0]);
+    }
+
+    private long loadAfter(AtomicLongArray target, int hashes, long[] afterId) {
+        long loadedCount = 0;
+        List<UserRepository.UsernameView> batch;
+        do {
+            batch = userRepository.findUsernamesAfter(afterId[0], PageRequest.ofSize(LOAD_BATCH_SIZE));
+            for (UserRepository.UsernameView user : batch) {
+                add(target, hashes, user.getUsername());
+                afterId[0] = user.getId();
+            }
+            loadedCount += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return loadedCount;
+    }
+
+    public void add(String username) {
+        add(bits, hashCount, username);
+    }
+
+    /**
+     * @return false only if the username is definitely not taken
+     */
+    public boolean mightContain(String username) {
+        checks.incrementAndGet();
+        if (!ready) {
+            return true;
+        }
+        AtomicLongArray current = bits;
+        long bitCount = (long) current.length() * 64;
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((current.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                definitelyAbsent.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(AtomicLongArray target, int hashes, String username) {
+        long bitCount = (long) target.length() * 64;
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long value;
+            do {
+                value = target.get(word);
+            } while ((value & mask) == 0 && !target.compareAndSet(word, value, value | mask));
+        }
+    }
+
+    // 64-bit FNV-1a over the lower-cased name; MySQL's default collation compares case-insensitively
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public long getCheckCount() {
+        return checks.get();
+    }
+
+    public long getDefinitelyAbsentCount() {
+        return definitelyAbsent.get();
+    }
+}
@@ -0,0 +1,51 @@
+package com.pantrypal.sharding;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Places users on a hash ring with {@code virtualNodes} points per shard. Adding a shard
+ * moves only about 1/N of the users, but those users' existing rows stay where they were,
+ * so with this mapping alone the shard list must not change once data exists. The
+ * directory mapping uses this ring only to place new users.
+ */
+public class ConsistentHashShardResolver implements ShardResolver {
+
+    private final List<String> shardIds;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashShardResolver(List<String> shardIds, int virtualNodes) {
+        if (shardIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardIds = List.copyOf(shardIds);
+        for (String shardId : shardIds) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(mix(((long) shardId.hashCode() << 32) | node), shardId);
+            }
+        }
+    }
+
+    @Override
+    public String resolve(Long userId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(userId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    @Override
+    public List<String> getShardIds() {
+        return shardIds;
+    }
+
+    // MurmurHash3 64-bit finalizer: spreads sequential ids evenly around the ring
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
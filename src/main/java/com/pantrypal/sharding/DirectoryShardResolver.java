@@ -0,0 +1,123 @@
+package com.pantrypal.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks users up in the {@code user_shards} table, so any user can be moved to any shard.
+ * A user without an entry is placed by {@code placement} and recorded on first access.
+ * Entries are cached for {@code cacheTtlMs}; a migration waits that long after flagging a
+ * user so every node has seen the flag before rows are copied, and again after the
+ * repoint so no node still reads the source when its rows are deleted.
+ */
+@Slf4j
+public class DirectoryShardResolver implements ShardResolver {
+
+    private final JdbcTemplate directory;
+    private final ShardResolver placement;
+    private final long cacheTtlMs;
+    private final int maxCachedUsers;
+    private final Map<Long, Assignment> cache = new ConcurrentHashMap<>();
+
+    public DirectoryShardResolver(DataSource directory, ShardResolver placement, long cacheTtlMs, int maxCachedUsers) {
+        this.directory = new JdbcTemplate(directory);
+        this.placement = placement;
+        this.cacheTtlMs = cacheTtlMs;
+        this.maxCachedUsers = maxCachedUsers;
+    }
+
+    @Override
+    public String resolve(Long userId) {
+        return lookup(userId).shardId();
+    }
+
+    @Override
+    public boolean isMigrating(Long userId) {
+        return lookup(userId).migrating();
+    }
+
+    @Override
+    public List<String> getShardIds() {
+        return placement.getShardIds();
+    }
+
+    public void setMigrating(Long userId, boolean migrating) {
+        lookup(userId);
+        directory.update("UPDATE user_shards SET migrating = ?, updated_at = ? WHERE user_id = ?",
+                migrating, Timestamp.valueOf(LocalDateTime.now()), userId);
+        cache.remove(userId);
+    }
+
+    /**
+     * Points the user at {@code shardId}, leaving the migrating flag as it is.
+     */
+    public void reassign(Long userId, String shardId) {
+        directory.update("UPDATE user_shards SET shard_id = ?, updated_at = ? WHERE user_id = ?",
+                shardId, Timestamp.valueOf(LocalDateTime.now()), userId);
+        cache.remove(userId);
+    }
+
+    public Map<String, Long> countUsersByShard() {
+        Map<String, Long> counts = new TreeMap<>();
+        getShardIds().forEach(shardId -> counts.put(shardId, 0L));
+        directory.query("SELECT shard_id, COUNT(*) FROM user_shards GROUP BY shard_id",
+                (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getLong(2)));
+        return counts;
+    }
+
+    public List<Long> findUsersOnShard(String shardId, int limit) {
+        return directory.queryForList(
+                "SELECT user_id FROM user_shards WHERE shard_id = ? AND migrating = FALSE ORDER BY user_id LIMIT ?",
+                Long.class, shardId, limit);
+    }
+
+    private Assignment lookup(Long userId) {
+        long now = System.currentTimeMillis();
+        Assignment cached = cache.get(userId);
+        if (cached != null && now - cached.loadedAt() < cacheTtlMs) {
+            return cached;
+        }
+
+        Assignment assignment = load(userId, now);
+        if (assignment == null) {
+            assignment = assign(userId, now);
+        }
+        if (cache.size() >= maxCachedUsers) {
+            cache.clear();
+        }
+        cache.put(userId, assignment);
+        return assignment;
+    }
+
+    private Assignment load(Long userId, long now) {
+        List<Assignment> rows = directory.query("SELECT shard_id, migrating FROM user_shards WHERE user_id = ?",
+                (rs, rowNum) -> new Assignment(rs.getString(1), rs.getBoolean(2), now), userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Assignment assign(Long userId, long now) {
+        String shardId = placement.resolve(userId);
+        try {
+            directory.update("INSERT INTO user_shards (user_id, shard_id, migrating, updated_at) VALUES (?, ?, FALSE, ?)",
+                    userId, shardId, Timestamp.valueOf(LocalDateTime.now()));
+            log.debug("Placed user {} on {}", userId, shardId);
+            return new Assignment(shardId, false, now);
+        } catch (DuplicateKeyException e) {
+            // Another request placed this user first
+            return load(userId, now);
+        }
+    }
+
+    private record Assignment(String shardId, boolean migrating, long loadedAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.pantrypal.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work should run on; {@code null} means the
+ * directory database that holds users and auth tables.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String shardId) {
+        CURRENT.set(shardId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callOn(String shardId, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(shardId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
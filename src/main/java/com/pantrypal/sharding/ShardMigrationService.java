@@ -0,0 +1,169 @@
+package com.pantrypal.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves users' inventory between shards. For each batch the users are flagged as
+ * migrating (writes get 503) and the tool waits for directory caches on every node to
+ * expire plus {@code drainMs} for writes that passed the check just before the flag to
+ * finish. It then copies the rows in one transaction on the target (ids preserved, so
+ * shards must allocate disjoint id ranges) and repoints the directory with the flag still
+ * set. Other nodes keep reading the source from their cache until it expires, so the
+ * source rows are only deleted after a second cache TTL, when the flag is cleared. A
+ * failure before the repoint leaves the user on the source shard.
+ */
+@Slf4j
+public class ShardMigrationService {
+
+    private static final String USER_TABLE = "inventory_items";
+
+    private final DirectoryShardResolver directory;
+    private final Map<String, DataSource> shards;
+    private final long settleMs;
+    private final long drainMs;
+
+    public ShardMigrationService(DirectoryShardResolver directory, Map<String, DataSource> shards,
+                                 long settleMs, long drainMs) {
+        this.directory = directory;
+        this.shards = shards;
+        this.settleMs = settleMs;
+        this.drainMs = drainMs;
+    }
+
+    public Map<String, Object> migrateUsers(List<Long> userIds, String targetShard) {
+        requireShard(targetShard);
+        List<Long> toMove = userIds.stream()
+                .filter(userId -> !directory.resolve(userId).equals(targetShard))
+                .toList();
+
+        toMove.forEach(userId -> directory.setMigrating(userId, true));
+        Map<Long, Copy> moved = new LinkedHashMap<>();
+        try {
+            sleep(settleMs + drainMs);
+            for (Long userId : toMove) {
+                moved.put(userId, copyUser(userId, targetShard));
+            }
+        } finally {
+            try {
+                if (!moved.isEmpty()) {
+                    // Nodes that cached the source before the repoint still read from it
+                    sleep(settleMs);
+                }
+            } finally {
+                toMove.forEach(userId -> directory.setMigrating(userId, false));
+            }
+        }
+        moved.forEach((userId, copy) -> deleteSource(userId, copy, targetShard));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("targetShard", targetShard);
+        result.put("usersMoved", moved.size());
+        result.put("rowsMoved", moved.values().stream().mapToInt(Copy::rows).sum());
+        return result;
+    }
+
+    /**
+     * Moves users from the fullest shard to the emptiest until the user counts differ by
+     * at most one or {@code maxUsers} have been moved.
+     */
+    public List<Map<String, Object>> rebalance(int maxUsers) {
+        Map<String, Long> counts = new LinkedHashMap<>(directory.countUsersByShard());
+        Map<String, Map<String, List<Long>>> plan = new LinkedHashMap<>();
+        int planned = 0;
+
+        while (planned < maxUsers) {
+            String fullest = Collections.max(counts.entrySet(), Map.Entry.comparingByValue()).getKey();
+            String emptiest = Collections.min(counts.entrySet(), Map.Entry.comparingByValue()).getKey();
+            if (counts.get(fullest) - counts.get(emptiest) <= 1) {
+                break;
+            }
+            long alreadyPlanned = plan.getOrDefault(fullest, Map.of()).values().stream().mapToLong(List::size).sum();
+            List<Long> candidates = directory.findUsersOnShard(fullest, (int) alreadyPlanned + 1);
+            if (candidates.size() <= alreadyPlanned) {
+                break;
+            }
+            plan.computeIfAbsent(fullest, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(emptiest, key -> new ArrayList<>())
+                    .add(candidates.get((int) alreadyPlanned));
+            counts.merge(fullest, -1L, Long::sum);
+            counts.merge(emptiest, 1L, Long::sum);
+            planned++;
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        plan.values().forEach(byTarget -> byTarget.forEach(
+                (target, userIds) -> results.add(migrateUsers(userIds, target))));
+        log.info("Rebalance moved {} users: {}", planned, results);
+        return results;
+    }
+
+    public Map<String, Long> countUsersByShard() {
+        return directory.countUsersByShard();
+    }
+
+    private Copy copyUser(Long userId, String targetShard) {
+        String sourceShard = directory.resolve(userId);
+        JdbcTemplate source = new JdbcTemplate(requireShard(sourceShard));
+        DataSource target = requireShard(targetShard);
+
+        List<Map<String, Object>> rows = source.queryForList("SELECT * FROM " + USER_TABLE + " WHERE user_id = ?", userId);
+        new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status -> {
+            JdbcTemplate targetJdbc = new JdbcTemplate(target);
+            for (Map<String, Object> row : rows) {
+                String columns = String.join(", ", row.keySet());
+                String placeholders = row.keySet().stream().map(column -> "?").collect(Collectors.joining(", "));
+                targetJdbc.update("INSERT INTO " + USER_TABLE + " (" + columns + ") VALUES (" + placeholders + ")",
+                        row.values().toArray());
+            }
+        });
+
+        directory.reassign(userId, targetShard);
+        return new Copy(sourceShard, rows.size());
+    }
+
+    private void deleteSource(Long userId, Copy copy, String targetShard) {
+        try {
+            new JdbcTemplate(requireShard(copy.sourceShard()))
+                    .update("DELETE FROM " + USER_TABLE + " WHERE user_id = ?", userId);
+        } catch (RuntimeException e) {
+            // The user already reads from the target; stale copies on the source are only wasted space
+            log.warn("User {} moved to {} but rows on {} were not removed: {}",
+                    userId, targetShard, copy.sourceShard(), e.getMessage());
+        }
+        log.info("Moved user {} from {} to {} ({} items)", userId, copy.sourceShard(), targetShard, copy.rows());
+    }
+
+    private DataSource requireShard(String shardId) {
+        DataSource dataSource = shards.get(shardId);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shardId);
+        }
+        return dataSource;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for directory caches to expire", e);
+        }
+    }
+
+    private record Copy(String sourceShard, int rows) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.pantrypal.sharding;
+
+import java.util.List;
+
+/**
+ * Maps a user to the shard that holds their inventory.
+ */
+public interface ShardResolver {
+
+    String resolve(Long userId);
+
+    /**
+     * Whether the user's data is being moved; writes are refused until it finishes.
+     */
+    default boolean isMigrating(Long userId) {
+        return false;
+    }
+
+    List<String> getShardIds();
+}
@@ -0,0 +1,33 @@
+package com.pantrypal.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes to the shard named by {@link ShardContext}, or to the directory database when no
+ * shard is set. An unknown shard id is an error rather than a silent fallback. Needs a
+ * {@code LazyConnectionDataSourceProxy} in front for the same reason as the replica router.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(DataSource directory, Map<String, DataSource> shards) {
+        this.shards = Map.copyOf(shards);
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(directory);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pantrypal.sharding;
+
+import com.pantrypal.entity.User;
+import com.pantrypal.exception.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Pins handlers of {@link UserSharded} controllers to the authenticated user's shard.
+ * Authentication has already loaded the user from the directory database by the time
+ * this runs, so everything the handler does goes to the shard.
+ */
+@RequiredArgsConstructor
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+    private final ShardResolver shardResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), UserSharded.class)) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            return true;
+        }
+
+        if (!HttpMethod.GET.matches(request.getMethod()) && shardResolver.isMigrating(user.getId())) {
+            throw new ServiceUnavailableException("Your pantry is being moved, please retry in a few seconds");
+        }
+        ShardContext.set(shardResolver.resolve(user.getId()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.pantrypal.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operator access to the shard directory and migrations. Denied over HTTP by
+ * SecurityConfig; use it over JMX, which is exposed for this endpoint but only started
+ * with {@code spring.jmx.enabled=true}.
+ */
+@Endpoint(id = "shards")
+@RequiredArgsConstructor
+public class ShardsEndpoint {
+
+    private final DirectoryShardResolver directory;
+    private final ShardMigrationService migrationService;
+
+    @ReadOperation
+    public Map<String, Long> usersByShard() {
+        return migrationService.countUsersByShard();
+    }
+
+    @ReadOperation
+    public Map<String, Object> user(@Selector Long userId) {
+        Map<String, Object> assignment = new LinkedHashMap<>();
+        assignment.put("userId", userId);
+        assignment.put("shard", directory.resolve(userId));
+        assignment.put("migrating", directory.isMigrating(userId));
+        return assignment;
+    }
+
+    @WriteOperation
+    public Map<String, Object> migrate(@Selector Long userId, String targetShard) {
+        return migrationService.migrateUsers(List.of(userId), targetShard);
+    }
+
+    @WriteOperation
+    public List<Map<String, Object>> rebalance(int maxUsers) {
+        return migrationService.rebalance(maxUsers);
+    }
+}
@@ -0,0 +1,13 @@
+package com.pantrypal.sharding;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a controller whose handlers only touch user-owned tables, so their database
+ * work runs on the shard of the authenticated user.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UserSharded {
+}
@@ -0,0 +1,220 @@
+package com.pantrypal.writebehind;
+
+import com.pantrypal.datasource.ReadYourWritesTracker;
+import com.pantrypal.entity.enums.Status;
+import com.pantrypal.sharding.ShardContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers item status changes per user for {@code windowMs} and writes the final status of
+ * each item in one UPDATE, so a burst of taps while shopping costs one statement instead of
+ * a transaction per tap. Toggling an item back and forth inside the window writes it once.
+ * <p>
+ * A user's buffer is flushed when its window closes, when it holds {@code maxItemsPerUser}
+ * items, before any other inventory request by that user, and on shutdown; offers made
+ * after shutdown has begun are refused so the caller writes through. Changes not yet
+ * flushed are lost if the process is killed, so at most one window of taps per user.
+ * <p>
+ * Flushes are recorded with the {@link ReadYourWritesTracker} when a replica is in use, so
+ * the user's next read stays on the primary. The buffer itself is per node: a request that
+ * lands on another instance does not flush it and sees the old status for up to one
+ * window. Only enable it with several instances if users are routed to one node.
+ */
+@Slf4j
+public class StatusWriteBuffer {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long windowNanos;
+    private final int maxItemsPerUser;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Object[] flushLocks = new Object[LOCK_STRIPES];
+    private volatile boolean closed;
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong flushedChanges = new AtomicLong();
+    private final AtomicLong flushedItems = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushTimeNanos = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    /**
+     * @param readYourWrites the replica's tracker, or null when reads never go to a replica
+     */
+    public StatusWriteBuffer(DataSource dataSource, ReadYourWritesTracker readYourWrites,
+                             long windowMs, int maxItemsPerUser) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.readYourWrites = readYourWrites;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxItemsPerUser = maxItemsPerUser;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            flushLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Buffers the change, or returns false if the buffer is shutting down and the caller
+     * must write it directly. The caller checks the item exists and is the user's; the
+     * UPDATE is still conditioned on ownership.
+     */
+    public boolean offer(Long userId, Long itemId, String status) {
+        if (closed) {
+            return false;
+        }
+        Status value = Status.valueOf(status.toUpperCase());
+        String shardId = ShardContext.current();
+        int[] size = new int[1];
+        pending.compute(userId, (id, current) -> {
+            Pending next = current != null ? current : new Pending(shardId, System.nanoTime());
+            next.changes.put(itemId, value);
+            next.received++;
+            size[0] = next.changes.size();
+            return next;
+        });
+        offered.incrementAndGet();
+
+        // Shutdown may have drained the buffer between the check above and the put
+        if (closed || size[0] >= maxItemsPerUser) {
+            flush(userId);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the user's buffered changes now; a no-op when there are none.
+     */
+    public void flush(Long userId) {
+        if (!pending.containsKey(userId)) {
+            return;
+        }
+        // Serializes flushes per user so an older batch can never land after a newer one
+        synchronized (flushLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)]) {
+            Pending batch = pending.remove(userId);
+            if (batch != null) {
+                write(userId, batch);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.status-buffer.tick-ms:200}")
+    public void flushDue() {
+        long now = System.nanoTime();
+        pending.forEach((userId, batch) -> {
+            if (now - batch.startedAt >= windowNanos) {
+                flush(userId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        int users = pending.size();
+        pending.keySet().forEach(this::flush);
+        log.info("Status write buffer closed, flushed changes for {} users", users);
+    }
+
+    private void write(Long userId, Pending batch) {
+        long start = System.nanoTime();
+        StringBuilder sql = new StringBuilder("UPDATE inventory_items SET status = CASE id");
+        StringBuilder ids = new StringBuilder();
+        List<Object> args = new ArrayList<>(batch.changes.size() * 3 + 2);
+        batch.changes.forEach((itemId, status) -> {
+            sql.append(" WHEN ? THEN ?");
+            args.add(itemId);
+            args.add(status.name());
+        });
+        sql.append(" END, version = version + 1, updated_at = ? WHERE user_id = ? AND id IN (");
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(userId);
+        for (Long itemId : batch.changes.keySet()) {
+            ids.append(ids.isEmpty() ? "?" : ", ?");
+            args.add(itemId);
+        }
+        sql.append(ids).append(')');
+
+        try {
+            // Auto-committed on the primary; no transaction, so the router cannot record it itself
+            ShardContext.callOn(batch.shardId, () -> jdbcTemplate.update(sql.toString(), args.toArray()));
+            if (readYourWrites != null) {
+                readYourWrites.recordWrite(userId, System.currentTimeMillis());
+            }
+            flushedChanges.addAndGet(batch.received);
+            flushedItems.addAndGet(batch.changes.size());
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            log.warn("Status flush for user {} failed, will retry: {}", userId, e.getMessage());
+            // Keep the batch, behind anything the user changed since it was taken
+            pending.merge(userId, batch, (newer, older) -> {
+                older.changes.forEach(newer.changes::putIfAbsent);
+                newer.received += older.received;
+                return newer;
+            });
+        } finally {
+            flushCount.incrementAndGet();
+            flushTimeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public int getPendingUserCount() {
+        return pending.size();
+    }
+
+    public long getOfferedCount() {
+        return offered.get();
+    }
+
+    public long getFlushedItemCount() {
+        return flushedItems.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushTimeNanos() {
+        return flushTimeNanos.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * Share of flushed changes that never reached the database because a later change to
+     * the same item replaced them.
+     */
+    public double getCoalescingRatio() {
+        long changes = flushedChanges.get();
+        return changes == 0 ? 0 : 1 - (double) flushedItems.get() / changes;
+    }
+
+    private static class Pending {
+        private final String shardId;
+        private final long startedAt;
+        private final Map<Long, Status> changes = new LinkedHashMap<>();
+        private int received;
+
+        private Pending(String shardId, long startedAt) {
+            this.shardId = shardId;
+            this.startedAt = startedAt;
+        }
+    }
+}
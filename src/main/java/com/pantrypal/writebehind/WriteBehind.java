@@ -0,0 +1,14 @@
+package com.pantrypal.writebehind;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a handler whose writes may be buffered by {@link StatusWriteBuffer}. Every other
+ * handler of a {@code @UserSharded} controller flushes the caller's buffer first, so it
+ * never sees state older than the user's own buffered changes.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WriteBehind {
+}
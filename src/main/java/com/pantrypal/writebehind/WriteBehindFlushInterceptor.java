@@ -0,0 +1,42 @@
+package com.pantrypal.writebehind;
+
+import com.pantrypal.entity.User;
+import com.pantrypal.sharding.UserSharded;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Flushes the caller's buffered status changes before any inventory request that could
+ * read or overwrite them. A {@link WriteBehind} request without {@code If-Match} is left
+ * alone, since it is about to be buffered itself; with {@code If-Match} it writes through
+ * and must compare against the flushed version.
+ */
+@RequiredArgsConstructor
+public class WriteBehindFlushInterceptor implements HandlerInterceptor {
+
+    private final StatusWriteBuffer buffer;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), UserSharded.class)) {
+            return true;
+        }
+        if (handlerMethod.hasMethodAnnotation(WriteBehind.class) && request.getHeader(HttpHeaders.IF_MATCH) == null) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            buffer.flush(user.getId());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,5 @@
+-- Optimistic locking counter for InventoryItem. INSTANT only touches the data dictionary,
+-- so existing rows are not rewritten and the table stays writable.
+ALTER TABLE inventory_items
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ALGORITHM=INSTANT;
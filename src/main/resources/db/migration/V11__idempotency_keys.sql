@@ -0,0 +1,15 @@
+-- Outcomes of POST /items and POST /items/bulk requests sent with an Idempotency-Key,
+-- kept until expires_at and then removed by the token purge job.
+CREATE TABLE idempotency_keys (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    endpoint VARCHAR(100) NOT NULL,
+    status_code INTEGER,
+    response_body MEDIUMTEXT,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_user_key UNIQUE (user_id, idempotency_key),
+    INDEX idx_idempotency_expires_at (expires_at)
+) ENGINE=InnoDB;
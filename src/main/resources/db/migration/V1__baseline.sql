@@ -0,0 +1,69 @@
+-- Schema as Hibernate generated it for the release deployed before migrations were
+-- introduced, and nothing newer. Databases created that way are adopted at this version
+-- (spring.flyway.baseline-on-migrate) and start at V2, so every later change belongs in its
+-- own migration. Unnamed unique constraints keep Hibernate's generated names so fresh and
+-- adopted databases stay identical.
+-- Enum columns use MySQL ENUM: adding a value to a Java enum needs a migration.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    enabled BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+) ENGINE=InnoDB;
+
+CREATE TABLE inventory_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    category ENUM ('CLOTHING','FRUITS','GROCERIES','HOUSEHOLD','MEDICINE','OTHER','PERSONAL_CARE','STATIONERY','VEGETABLES') NOT NULL,
+    status ENUM ('IN_STOCK','LOW','OUT_OF_STOCK') NOT NULL,
+    frequency ENUM ('DAILY','MONTHLY','OCCASIONAL','WEEKLY') NOT NULL,
+    price DECIMAL(10,2),
+    note TEXT,
+    need_by DATE,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_user_id (user_id),
+    INDEX idx_category (category),
+    INDEX idx_status (status),
+    INDEX idx_user_category (user_id, category),
+    INDEX idx_user_status (user_id, status),
+    INDEX idx_need_by (need_by),
+    CONSTRAINT fk_inventory_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    token VARCHAR(255) NOT NULL,
+    expiry_date DATETIME(6) NOT NULL,
+    revoked BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_token (token),
+    INDEX idx_user_id (user_id),
+    CONSTRAINT UKghpmfn23vmxfu3spu3lfg4r2d UNIQUE (token),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE password_reset_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    token VARCHAR(255) NOT NULL,
+    expiry_date DATETIME(6) NOT NULL,
+    used BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_reset_token (token),
+    INDEX idx_reset_user_id (user_id),
+    CONSTRAINT UK71lqwbwtklmljk3qlsugr1mig UNIQUE (token),
+    CONSTRAINT fk_password_reset_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
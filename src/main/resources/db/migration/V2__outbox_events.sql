@@ -0,0 +1,13 @@
+-- Transactional outbox: rows are written in the same transaction as the change that
+-- produced them and delivered by the relay.
+CREATE TABLE outbox_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status ENUM ('FAILED','PENDING') NOT NULL,
+    attempts INTEGER NOT NULL,
+    available_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_outbox_status_available (status, available_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,7 @@
+-- Named leases that elect one node to run cluster-wide scheduled jobs.
+CREATE TABLE job_locks (
+    name VARCHAR(64) NOT NULL,
+    locked_until DATETIME(6) NOT NULL,
+    locked_by VARCHAR(100) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
@@ -0,0 +1,14 @@
+-- One refresh-token session per device. Tokens are stored as a raw UUID or its SHA-256 hex
+-- digest, so 64 characters is enough. Sessions issued before devices existed get a device
+-- id of their own and keep working until they expire or are purged.
+ALTER TABLE refresh_tokens
+    MODIFY token VARCHAR(64) NOT NULL,
+    ADD COLUMN device_id VARCHAR(64),
+    ADD COLUMN device_name VARCHAR(100),
+    ADD COLUMN last_used_at DATETIME(6);
+
+UPDATE refresh_tokens SET device_id = CONCAT('legacy-', id);
+
+ALTER TABLE refresh_tokens
+    MODIFY device_id VARCHAR(64) NOT NULL,
+    ADD CONSTRAINT uk_refresh_token_user_device UNIQUE (user_id, device_id);
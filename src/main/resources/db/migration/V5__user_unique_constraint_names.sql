@@ -0,0 +1,7 @@
+-- Registration maps a duplicate-key error to the field by constraint name, so the names
+-- Hibernate generated are replaced with stable ones. Renaming an index only touches the
+-- data dictionary.
+ALTER TABLE users
+    RENAME INDEX UK6dotkott2kjsp8vw4d0m25fb7 TO uk_users_email,
+    RENAME INDEX UKr43af9ap4edm43mmtq01oddj6 TO uk_users_username,
+    ALGORITHM=INPLACE, LOCK=NONE;
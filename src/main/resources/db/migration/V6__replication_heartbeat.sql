@@ -0,0 +1,7 @@
+-- Single row the primary stamps with the current time; reading it from a replica gives
+-- that replica's lag.
+CREATE TABLE replication_heartbeat (
+    id INTEGER NOT NULL,
+    beat_at_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
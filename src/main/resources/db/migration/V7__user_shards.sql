@@ -0,0 +1,9 @@
+-- Directory of which shard holds each user's inventory, used by the directory mapping.
+CREATE TABLE user_shards (
+    user_id BIGINT NOT NULL,
+    shard_id VARCHAR(32) NOT NULL,
+    migrating BIT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id),
+    INDEX idx_user_shards_shard (shard_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Composite indexes for what InventoryItemRepository runs: every query filters on user_id
+-- first, then sorts by updated_at (the paged listing's default) or filters by need_by
+-- (upcoming items) or frequency. Name search matches a substring (LIKE '%q%'), which no
+-- index can seek on; idx_user_name only narrows it to the user's entries, where the name
+-- test runs on the index before any row is read. Built in place without blocking writes;
+-- MySQL rejects the statement rather than silently falling back to a copying, locking rebuild.
+ALTER TABLE inventory_items
+    ADD INDEX idx_user_updated (user_id, updated_at),
+    ADD INDEX idx_user_need_by (user_id, need_by),
+    ADD INDEX idx_user_frequency (user_id, frequency),
+    ADD INDEX idx_user_name (user_id, name),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,10 @@
+-- idx_user_id is a prefix of every user_id composite (which also backs fk_inventory_user).
+-- category, status and need_by are never queried without user_id, so their single-column
+-- indexes only cost writes. Check the indexes actuator report before applying on a
+-- database whose traffic differs from the repository's queries.
+ALTER TABLE inventory_items
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_category,
+    DROP INDEX idx_status,
+    DROP INDEX idx_need_by,
+    ALGORITHM=INPLACE, LOCK=NONE;
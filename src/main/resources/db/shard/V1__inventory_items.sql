@@ -0,0 +1,22 @@
+-- User-owned tables on each inventory shard, matching the directory schema after
+-- db/migration V9. users lives in the directory database, so user_id carries no foreign key.
+CREATE TABLE IF NOT EXISTS inventory_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    category ENUM ('CLOTHING','FRUITS','GROCERIES','HOUSEHOLD','MEDICINE','OTHER','PERSONAL_CARE','STATIONERY','VEGETABLES') NOT NULL,
+    status ENUM ('IN_STOCK','LOW','OUT_OF_STOCK') NOT NULL,
+    frequency ENUM ('DAILY','MONTHLY','OCCASIONAL','WEEKLY') NOT NULL,
+    price DECIMAL(10,2),
+    note TEXT,
+    need_by DATE,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_user_category (user_id, category),
+    INDEX idx_user_status (user_id, status),
+    INDEX idx_user_updated (user_id, updated_at),
+    INDEX idx_user_need_by (user_id, need_by),
+    INDEX idx_user_frequency (user_id, frequency),
+    INDEX idx_user_name (user_id, name)
+);
@@ -0,0 +1,69 @@
+package com.pantrypal.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A two-connection pool with a short acquisition budget; the schedule is pushed out so the
+ * test decides when each tuning window closes.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.pool-name=tuned",
+        "app.datasource.pool.acquisition-budget-ms=250",
+        "app.datasource.pool.autotune.mode=adjust",
+        "app.datasource.pool.autotune.sample-interval-ms=3600000",
+        "app.datasource.pool.autotune.min-size=2",
+        "app.datasource.pool.autotune.max-size=8"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class PoolAutotunerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PoolAutotuner poolAutotuner;
+
+    @Test
+    void saturatedPoolFailsFastAndIsGrown() throws Exception {
+        String token = registerAndLogin(mockMvc, "pool_user");
+
+        HikariDataSource pool = poolAutotuner.getPools().stream()
+                .filter(candidate -> candidate.getPoolName().equals("tuned"))
+                .findFirst().orElseThrow();
+        assertThat(pool.getConnectionTimeout()).isEqualTo(250);
+        poolAutotuner.evaluateNow();
+
+        try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+            assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(5_000);
+            Thread.sleep(1_000);
+        }
+
+        // Both connections were busy for the whole window and a caller timed out waiting
+        poolAutotuner.evaluateNow();
+        assertThat(poolAutotuner.getRecommendedSize("tuned")).isGreaterThan(2);
+        assertThat(pool.getMaximumPoolSize()).isGreaterThan(2);
+    }
+}
@@ -0,0 +1,172 @@
+package com.pantrypal.datasource;
+
+import com.pantrypal.config.CustomUserDetailsService;
+import com.pantrypal.dto.request.InventoryItemRequest;
+import com.pantrypal.entity.InventoryItem;
+import com.pantrypal.entity.User;
+import com.pantrypal.entity.enums.Category;
+import com.pantrypal.entity.enums.Frequency;
+import com.pantrypal.entity.enums.Status;
+import com.pantrypal.repository.InventoryItemRepository;
+import com.pantrypal.repository.UserRepository;
+import com.pantrypal.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the router against two separate in-memory databases. "Replication" is an explicit
+ * H2 SCRIPT/RUNSCRIPT copy, so each test controls exactly what the replica has seen.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:pantrypal-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.heartbeat-interval-ms=3600000",
+        "app.datasource.replica.max-lag-ms=5000"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource router;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaUntilItLags() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("replica_reader").email("replica_reader@example.com").password("x").build());
+        saveItem(user, "Rice");
+        saveItem(user, "Pasta");
+        replicate();
+
+        // Only on the primary
+        saveItem(user, "Flour");
+
+        long replicaReads = router.getReplicaReadCount();
+        assertThat(inventoryService.getAllItemsByUserId(user.getId())).hasSize(2);
+        assertThat(router.getReplicaReadCount()).isGreaterThan(replicaReads);
+
+        // The replica's heartbeat is a minute old: reads fall back to the primary
+        new JdbcTemplate(replicaDataSource).update("UPDATE replication_heartbeat SET beat_at_millis = ?",
+                System.currentTimeMillis() - 60_000);
+        lagMonitor.check();
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+
+        long lagFallbacks = router.getLagFallbackCount();
+        assertThat(inventoryService.getAllItemsByUserId(user.getId())).hasSize(3);
+        assertThat(router.getLagFallbackCount()).isGreaterThan(lagFallbacks);
+    }
+
+    @Test
+    void userReadsOwnWritesUntilReplicaCatchesUp() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("replica_writer").email("replica_writer@example.com").password("x").build());
+        saveItem(user, "Milk");
+        replicate();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        InventoryItemRequest request = new InventoryItemRequest();
+        request.setName("Eggs");
+        request.setCategory("groceries");
+        request.setStatus("in_stock");
+        request.setFrequency("weekly");
+        inventoryService.createItem(user.getId(), request);
+
+        // Replica is healthy but has not seen the new item; this user must still see it
+        long stickyReads = router.getReadYourWritesFallbackCount();
+        assertThat(inventoryService.getAllItemsByUserId(user.getId())).hasSize(2);
+        assertThat(router.getReadYourWritesFallbackCount()).isGreaterThan(stickyReads);
+
+        Thread.sleep(5);
+        replicate();
+
+        long replicaReads = router.getReplicaReadCount();
+        assertThat(inventoryService.getAllItemsByUserId(user.getId())).hasSize(2);
+        assertThat(router.getReplicaReadCount()).isGreaterThan(replicaReads);
+    }
+
+    @Test
+    void tokenLookupFindsUserTheReplicaHasNotSeen() throws Exception {
+        replicate();
+        User user = userRepository.save(User.builder()
+                .username("replica_newcomer").email("replica_newcomer@example.com").password("x").build());
+
+        long forcedReads = router.getForcedPrimaryReadCount();
+        assertThat(userDetailsService.loadUserByUsername("replica_newcomer@example.com").getUsername())
+                .isEqualTo(user.getUsername());
+        assertThat(router.getForcedPrimaryReadCount()).isGreaterThan(forcedReads);
+    }
+
+    private void saveItem(User user, String name) {
+        itemRepository.save(InventoryItem.builder()
+                .user(user)
+                .name(name)
+                .category(Category.GROCERIES)
+                .status(Status.IN_STOCK)
+                .frequency(Frequency.WEEKLY)
+                .build());
+    }
+
+    /**
+     * Stamps a heartbeat on the primary, copies the whole primary into the replica and
+     * lets the monitor see it.
+     */
+    private void replicate() throws Exception {
+        lagMonitor.beat();
+        Path dump = Files.createTempFile("primary-", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + dump + "'");
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + dump + "'");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+        lagMonitor.check();
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+    }
+}
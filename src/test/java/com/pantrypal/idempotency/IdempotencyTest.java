@@ -0,0 +1,92 @@
+package com.pantrypal.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.pantrypal.support.ApiTestSupport.itemJson;
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Responses up to 400 bytes stay in memory, so a single create is replayed from memory and
+ * a bulk create from the database.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false",
+        "app.idempotency.memory-max-body-bytes=400"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Test
+    void retriedCreatesReturnTheFirstResponseWithoutCreatingAgain() throws Exception {
+        String token = registerAndLogin(mockMvc, "idem_retry");
+        String bulk = "{\"items\":[" + itemJson("Flour") + "," + itemJson("Sugar") + "," + itemJson("Yeast") + "]}";
+
+        MvcResult first = create(token, "/items", "k-single", itemJson("Salt"));
+        long memoryReplays = store.getMemoryReplayCount();
+        MvcResult retry = create(token, "/items", "k-single", itemJson("Salt"));
+        assertThat(store.getMemoryReplayCount()).isEqualTo(memoryReplays + 1);
+        assertThat(retry.getResponse().getHeader(IdempotencyInterceptor.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+
+        MvcResult firstBulk = create(token, "/items/bulk", "k-bulk", bulk);
+        long databaseReplays = store.getDatabaseReplayCount();
+        MvcResult retryBulk = create(token, "/items/bulk", "k-bulk", bulk);
+        assertThat(retryBulk.getResponse().getContentAsString()).isEqualTo(firstBulk.getResponse().getContentAsString());
+        assertThat(store.getDatabaseReplayCount()).isEqualTo(databaseReplays + 1);
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.length()").value(4));
+    }
+
+    @Test
+    void failedRequestsReleaseTheKeyAndKeysAreBoundToOneEndpoint() throws Exception {
+        String token = registerAndLogin(mockMvc, "idem_release");
+
+        mockMvc.perform(post("/items").header("Authorization", "Bearer " + token)
+                        .header(IdempotencyInterceptor.HEADER, "k-retry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"\"}"))
+                .andExpect(status().isBadRequest());
+        create(token, "/items", "k-retry", itemJson("Pepper"));
+
+        mockMvc.perform(post("/items/bulk").header("Authorization", "Bearer " + token)
+                        .header(IdempotencyInterceptor.HEADER, "k-retry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[" + itemJson("Cumin") + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyInterceptor.REPLAYED_HEADER));
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    private MvcResult create(String token, String path, String key, String body) throws Exception {
+        return mockMvc.perform(post(path).header("Authorization", "Bearer " + token)
+                        .header(IdempotencyInterceptor.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -0,0 +1,102 @@
+package com.pantrypal.service;
+
+import com.jayway.jsonpath.JsonPath;
+import com.pantrypal.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Counts the SQL statements each auth flow issues, so an extra lookup of the user
+ * (or a lazy load sneaking back in) fails the build instead of showing up in production.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthFlowQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void authFlowsTouchUsersAtMostOnce() throws Exception {
+        String register = "{\"username\":\"counter\",\"email\":\"counter@example.com\",\"password\":\"secret12\"}";
+        String login = "{\"email\":\"counter@example.com\",\"password\":\"secret12\",\"deviceId\":\"laptop\"}";
+        String item = "{\"name\":\"Milk\",\"category\":\"groceries\",\"status\":\"low\",\"frequency\":\"weekly\"}";
+
+        MockHttpServletResponse registered = measure(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON).content(register));
+        assertThat(registered.getStatus()).isEqualTo(200);
+        // INSERT user, UPDATE device session (no row yet), INSERT refresh token, INSERT outbox event
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(userReads()).isEqualTo(0);
+
+        MockHttpServletResponse loggedIn = measure(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON).content(login));
+        assertThat(loggedIn.getStatus()).isEqualTo(200);
+        // SELECT user, UPDATE device session (new device), INSERT refresh token
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(userReads()).isEqualTo(1);
+        String accessToken = JsonPath.read(loggedIn.getContentAsString(), "$.data.token");
+        String refreshToken = JsonPath.read(loggedIn.getContentAsString(), "$.data.refreshToken");
+
+        MockHttpServletResponse refreshed = measure(post("/auth/refresh").header("Refresh-Token", refreshToken));
+        assertThat(refreshed.getStatus()).isEqualTo(200);
+        // Conditional UPDATE only; the session comes from the registry and the user is not reloaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userReads()).isEqualTo(0);
+
+        MockHttpServletResponse created = measure(post("/items")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON).content(item));
+        assertThat(created.getStatus()).isEqualTo(200);
+        // SELECT user in the JWT filter, INSERT item; the FK is set from a reference
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(userReads()).isEqualTo(1);
+
+        MockHttpServletResponse verified = measure(get("/auth/verify").header("Authorization", "Bearer " + accessToken));
+        assertThat(verified.getStatus()).isEqualTo(200);
+        // SELECT user in the JWT filter
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userReads()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse measure(RequestBuilder request) throws Exception {
+        statistics.clear();
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private long userReads() {
+        EntityStatistics users = statistics.getEntityStatistics(User.class.getName());
+        return users.getLoadCount() + users.getFetchCount();
+    }
+}
@@ -0,0 +1,96 @@
+package com.pantrypal.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static com.pantrypal.support.ApiTestSupport.createItem;
+import static com.pantrypal.support.ApiTestSupport.itemJson;
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class InventoryBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void operationsRunInOrderAndReportTheirResults() throws Exception {
+        String token = registerAndLogin(mockMvc, "batch_ok");
+        long rice = createItem(mockMvc, token, "Rice");
+        long beans = createItem(mockMvc, token, "Beans");
+        long oats = createItem(mockMvc, token, "Oats");
+
+        batch(token, "[" + op("create", null, null, itemJson("Tea"), null) + ","
+                + op("patch", rice, 0L, itemJson("Brown rice"), null) + ","
+                + op("status", beans, null, null, "low") + ","
+                + op("delete", oats, 0L, null, null) + "]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(4))
+                .andExpect(jsonPath("$.data[0].op").value("create"))
+                .andExpect(jsonPath("$.data[0].item.name").value("Tea"))
+                .andExpect(jsonPath("$.data[1].item.name").value("Brown rice"))
+                .andExpect(jsonPath("$.data[1].item.version").value(1))
+                .andExpect(jsonPath("$.data[2].item.status").value("low"))
+                .andExpect(jsonPath("$.data[3].id").value(oats))
+                .andExpect(jsonPath("$.data[3].item").doesNotExist());
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.length()").value(3));
+    }
+
+    @Test
+    void aFailingOperationRollsBackTheWholeBatch() throws Exception {
+        String token = registerAndLogin(mockMvc, "batch_rollback");
+        long rice = createItem(mockMvc, token, "Rice");
+        long beans = createItem(mockMvc, token, "Beans");
+
+        batch(token, "[" + op("create", null, null, itemJson("Tea"), null) + ","
+                + op("status", beans, null, null, "low") + ","
+                + op("delete", rice, null, null, null) + ","
+                + op("status", rice, null, null, "out_of_stock") + "]")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Operation 3: item " + rice + " is deleted earlier in the batch"));
+
+        batch(token, "[" + op("status", beans, null, null, "low") + ","
+                + op("patch", rice, 4L, itemJson("Brown rice"), null) + "]")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data[0].id").value(rice))
+                .andExpect(jsonPath("$.data[0].currentVersion").value(0));
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.length()").value(2));
+        mockMvc.perform(get("/items/" + beans).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.status").value("in_stock"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    private ResultActions batch(String token, String operations) throws Exception {
+        return mockMvc.perform(post("/items/batch").header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":" + operations + "}"));
+    }
+
+    private static String op(String op, Long id, Long version, String item, String status) {
+        StringBuilder json = new StringBuilder("{\"op\":\"" + op + "\"");
+        if (id != null) json.append(",\"id\":").append(id);
+        if (version != null) json.append(",\"version\":").append(version);
+        if (item != null) json.append(",\"item\":").append(item);
+        if (status != null) json.append(",\"status\":\"").append(status).append('"');
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.pantrypal.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.pantrypal.support.ApiTestSupport.createItem;
+import static com.pantrypal.support.ApiTestSupport.itemJson;
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two household members editing the same items: the second writer, still holding the old
+ * ETag, gets a 409 instead of overwriting the first.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class InventoryConcurrencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void staleIfMatchIsRejectedWithTheCurrentVersion() throws Exception {
+        String token = registerAndLogin(mockMvc, "etag_single");
+        long id = createItem(mockMvc, token, "Milk");
+
+        mockMvc.perform(get("/items/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/items/" + id).header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(itemJson("Oat milk")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        mockMvc.perform(patch("/items/" + id + "/status").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"out_of_stock\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data[0].id").value(id))
+                .andExpect(jsonPath("$.data[0].expectedVersion").value(0))
+                .andExpect(jsonPath("$.data[0].currentVersion").value(1));
+
+        mockMvc.perform(get("/items/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.name").value("Oat milk"))
+                .andExpect(jsonPath("$.status").value("in_stock"));
+    }
+
+    @Test
+    void bulkDeleteReportsEveryConflictAndDeletesNothing() throws Exception {
+        String token = registerAndLogin(mockMvc, "etag_bulk");
+        long fresh = createItem(mockMvc, token, "Rice");
+        long edited = createItem(mockMvc, token, "Beans");
+
+        mockMvc.perform(put("/items/" + edited).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(itemJson("Black beans")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/items/bulk").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + fresh + "," + edited + "],\"versions\":{\""
+                                + fresh + "\":0,\"" + edited + "\":0}}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(edited));
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.length()").value(2));
+
+        mockMvc.perform(delete("/items/bulk").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + fresh + "," + edited + "],\"versions\":{\""
+                                + fresh + "\":0,\"" + edited + "\":1}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(2));
+    }
+}
@@ -0,0 +1,60 @@
+package com.pantrypal.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new StringTemplateResolver());
+
+        dispatcher = new MailDispatcher(mailSender, new EmailTemplates(templateEngine));
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "pantrypal@example.com");
+    }
+
+    @Test
+    void deliversABatchOfEmails() throws Exception {
+        List<OutboundEmail> batch = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(OutboundEmail.builder()
+                    .to("user" + i + "@example.com")
+                    .subject("Welcome")
+                    .template("<p>Hello [[${username}]]</p>")
+                    .variable("username", "user" + i)
+                    .build());
+        }
+
+        assertThat(dispatcher.send(batch)).isEmpty();
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, 25)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(25);
+        assertThat(received[0].getSubject()).isEqualTo("Welcome");
+        assertThat(dispatcher.getSentCount()).isEqualTo(25);
+        assertThat(dispatcher.getBatchCount()).isEqualTo(1);
+    }
+}
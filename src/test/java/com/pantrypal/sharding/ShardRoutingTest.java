@@ -0,0 +1,176 @@
+package com.pantrypal.sharding;
+
+import com.pantrypal.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.pantrypal.support.ApiTestSupport.createItem;
+import static com.pantrypal.support.ApiTestSupport.itemJson;
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory shards behind the directory mapping, with no directory cache so a flag or
+ * reassignment is visible immediately. The cached-route case builds its own resolvers with
+ * a short TTL to stand in for two nodes.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false",
+        "app.sharding.enabled=true",
+        "app.sharding.mapping=directory",
+        "app.sharding.shard-ids=s0,s1",
+        "app.sharding.directory-cache-ttl-ms=0",
+        "app.sharding.migration-drain-ms=0",
+        "app.sharding.initialize-schema=true",
+        "app.sharding.shards.s0.url=jdbc:h2:mem:pantrypal-shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards.s0.username=sa",
+        "app.sharding.shards.s1.url=jdbc:h2:mem:pantrypal-shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards.s1.username=sa",
+        "app.sharding.shards.s1.id-offset=1000000"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ShardRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DirectoryShardResolver directory;
+
+    @Autowired
+    private ShardMigrationService migrationService;
+
+    @Autowired
+    private ShardRoutingDataSource router;
+
+    @Autowired
+    @Qualifier("directoryDataSource")
+    private DataSource directoryDataSource;
+
+    @Test
+    void itemsLiveOnTheUsersShardAndKeepTheirIdsWhenMoved() throws Exception {
+        String token = registerAndLogin(mockMvc, "shard_mover");
+        createItem(mockMvc, token, "Rice");
+        createItem(mockMvc, token, "Beans");
+
+        long userId = userIdOf("shard_mover");
+        String source = directory.resolve(userId);
+        String target = source.equals("s0") ? "s1" : "s0";
+        List<Long> ids = itemIdsOn(source, userId);
+        assertThat(ids).hasSize(2);
+        assertThat(itemIdsOn(target, userId)).isEmpty();
+
+        mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2));
+
+        migrationService.migrateUsers(List.of(userId), target);
+
+        assertThat(directory.resolve(userId)).isEqualTo(target);
+        assertThat(itemIdsOn(source, userId)).isEmpty();
+        assertThat(itemIdsOn(target, userId)).containsExactlyInAnyOrderElementsOf(ids);
+        mockMvc.perform(get("/items/" + ids.get(0)).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(ids.get(0)));
+    }
+
+    @Test
+    void anotherNodeStillFindsTheItemsWhileItsCachedRouteIsStale() throws Exception {
+        String token = registerAndLogin(mockMvc, "shard_cached");
+        long userId = userIdOf("shard_cached");
+        // Pinned to s1 before any items exist so the move goes the same way on every run
+        String source = "s1";
+        String target = "s0";
+        directory.resolve(userId);
+        directory.reassign(userId, source);
+        createItem(mockMvc, token, "Flour");
+        createItem(mockMvc, token, "Sugar");
+
+        long ttlMs = 300;
+        ShardResolver placement = new ConsistentHashShardResolver(directory.getShardIds(), 128);
+        DirectoryShardResolver thisNode = new DirectoryShardResolver(directoryDataSource, placement, ttlMs, 100);
+        DirectoryShardResolver otherNode = new DirectoryShardResolver(directoryDataSource, placement, ttlMs, 100);
+        assertThat(otherNode.resolve(userId)).isEqualTo(source);
+
+        ShardMigrationService migration = new ShardMigrationService(thisNode, router.getShards(), ttlMs, 0);
+        CompletableFuture<Map<String, Object>> result =
+                CompletableFuture.supplyAsync(() -> migration.migrateUsers(List.of(userId), target));
+
+        Set<String> seen = new HashSet<>();
+        while (!result.isDone()) {
+            String shard = otherNode.resolve(userId);
+            seen.add(shard);
+            assertThat(itemIdsOn(shard, userId)).as("items on %s", shard).hasSize(2);
+            Thread.sleep(5);
+        }
+
+        assertThat(result.get().get("rowsMoved")).isEqualTo(2);
+        assertThat(seen).contains(source, target);
+        assertThat(itemIdsOn(source, userId)).isEmpty();
+        assertThat(directory.isMigrating(userId)).isFalse();
+    }
+
+    @Test
+    void writesAreRefusedWhileTheUserIsMigrating() throws Exception {
+        String token = registerAndLogin(mockMvc, "shard_frozen");
+        createItem(mockMvc, token, "Oats");
+        long userId = userIdOf("shard_frozen");
+
+        directory.setMigrating(userId, true);
+        try {
+            mockMvc.perform(post("/items").header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(itemJson("Tea")))
+                    .andExpect(status().isServiceUnavailable());
+            mockMvc.perform(get("/items/all").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.length()").value(1));
+        } finally {
+            directory.setMigrating(userId, false);
+        }
+    }
+
+    @Test
+    void consistentHashSpreadsUsersEvenly() {
+        ConsistentHashShardResolver ring = new ConsistentHashShardResolver(List.of("s0", "s1", "s2", "s3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long userId = 1; userId <= 40_000; userId++) {
+            counts.merge(ring.resolve(userId), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(8_000, 12_000));
+    }
+
+    private long userIdOf(String username) {
+        return userRepository.findByUsername(username).orElseThrow().getId();
+    }
+
+    private List<Long> itemIdsOn(String shardId, long userId) {
+        return new JdbcTemplate(router.getShards().get(shardId))
+                .queryForList("SELECT id FROM inventory_items WHERE user_id = ?", Long.class, userId);
+    }
+}
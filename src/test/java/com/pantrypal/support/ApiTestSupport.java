@@ -0,0 +1,51 @@
+package com.pantrypal.support;
+
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests the MockMvc tests share to set up a user and their items through the API.
+ */
+public final class ApiTestSupport {
+
+    public static final String PASSWORD = "secret12";
+
+    private ApiTestSupport() {
+    }
+
+    /**
+     * Registers {@code username} (email {@code <username>@example.com}) and returns an
+     * access token for it.
+     */
+    public static String registerAndLogin(MockMvc mockMvc, String username) throws Exception {
+        String email = username + "@example.com";
+        mockMvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().is2xxSuccessful());
+        String body = mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.data.token");
+    }
+
+    /**
+     * Creates an in-stock weekly grocery item and returns its id.
+     */
+    public static long createItem(MockMvc mockMvc, String token, String name) throws Exception {
+        String body = mockMvc.perform(post("/items").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(itemJson(name)))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.data.id")).longValue();
+    }
+
+    public static String itemJson(String name) {
+        return "{\"name\":\"" + name + "\",\"category\":\"groceries\",\"status\":\"in_stock\",\"frequency\":\"weekly\"}";
+    }
+}
@@ -0,0 +1,122 @@
+package com.pantrypal.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static com.pantrypal.support.ApiTestSupport.createItem;
+import static com.pantrypal.support.ApiTestSupport.registerAndLogin;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The window is far longer than the test, so only a read, a full buffer or shutdown can
+ * trigger a flush.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.token-purge.enabled=false",
+        "app.inventory.status-buffer.enabled=true",
+        "app.inventory.status-buffer.window-ms=3600000"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class StatusWriteBufferTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatusWriteBuffer buffer;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void togglesAreCoalescedAndFlushedBeforeTheNextRead() throws Exception {
+        String token = registerAndLogin(mockMvc, "toggle_shopper");
+        long milk = createItem(mockMvc, token, "Milk");
+        long eggs = createItem(mockMvc, token, "Eggs");
+
+        setStatus(token, milk, "low");
+        setStatus(token, milk, "out_of_stock");
+        setStatus(token, eggs, "out_of_stock");
+        setStatus(token, milk, "in_stock");
+        setStatus(token, eggs, "low");
+
+        assertThat(statusOf(milk)).isEqualTo("IN_STOCK");
+        assertThat(statusOf(eggs)).isEqualTo("IN_STOCK");
+        assertThat(versionOf(eggs)).isZero();
+
+        long written = buffer.getFlushedItemCount();
+        mockMvc.perform(get("/items/" + eggs).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("low"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertThat(buffer.getFlushedItemCount() - written).isEqualTo(2);
+        assertThat(versionOf(milk)).isEqualTo(1);
+        assertThat(buffer.getCoalescingRatio()).isGreaterThan(0);
+    }
+
+    @Test
+    void missingAndForeignItemsAreRejectedInsteadOfBuffered() throws Exception {
+        String owner = registerAndLogin(mockMvc, "toggle_owner");
+        long bread = createItem(mockMvc, owner, "Bread");
+        String stranger = registerAndLogin(mockMvc, "toggle_stranger");
+        long offered = buffer.getOfferedCount();
+
+        mockMvc.perform(patch("/items/" + bread + "/status").header("Authorization", "Bearer " + stranger)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"low\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(patch("/items/999999/status").header("Authorization", "Bearer " + owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"low\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(buffer.getOfferedCount()).isEqualTo(offered);
+        assertThat(statusOf(bread)).isEqualTo("IN_STOCK");
+    }
+
+    @Test
+    void closingFlushesEverythingAndRefusesLaterChanges() throws Exception {
+        String token = registerAndLogin(mockMvc, "toggle_closer");
+        long rice = createItem(mockMvc, token, "Rice");
+        long userId = new JdbcTemplate(dataSource)
+                .queryForObject("SELECT user_id FROM inventory_items WHERE id = ?", Long.class, rice);
+
+        StatusWriteBuffer standalone = new StatusWriteBuffer(dataSource, null, 3_600_000, 100);
+        assertThat(standalone.offer(userId, rice, "out_of_stock")).isTrue();
+        assertThat(statusOf(rice)).isEqualTo("IN_STOCK");
+
+        standalone.close();
+        assertThat(statusOf(rice)).isEqualTo("OUT_OF_STOCK");
+        assertThat(standalone.offer(userId, rice, "low")).isFalse();
+    }
+
+    private void setStatus(String token, long id, String status) throws Exception {
+        mockMvc.perform(patch("/items/" + id + "/status").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"" + status + "\"}"))
+                .andExpect(status().isAccepted());
+    }
+
+    private String statusOf(long id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT status FROM inventory_items WHERE id = ?", String.class, id);
+    }
+
+    private long versionOf(long id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT version FROM inventory_items WHERE id = ?", Long.class, id);
+    }
+}